@@ -1,15 +1,24 @@
 package org.example.article;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.example.common.Versioned;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+import java.time.LocalDate;
 
 @Entity
-@Table(name = "articles")
-public class Article {
+@Table(name = "articles",
+        indexes = @Index(name = "idx_articles_published_at", columnList = "published_at, id"))
+public class Article implements Versioned {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "articles_seq")
+    @SequenceGenerator(name = "articles_seq", sequenceName = "articles_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Заголовок не должен быть пустым")
@@ -24,8 +33,17 @@ public class Article {
     @Size(max = 100, message = "Имя автора не должно превышать 100 символов")
     private String author;
 
-    @NotBlank(message = "Дата публикации не должна быть пустой")
-    private String publishedAt;
+    @NotNull(message = "Дата публикации не должна быть пустой")
+    private LocalDate publishedAt;
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @UpdateTimestamp
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant updatedAt;
 
     public Article() {
     }
@@ -63,11 +81,29 @@ public class Article {
         this.author = author;
     }
 
-    public String getPublishedAt() {
+    public LocalDate getPublishedAt() {
         return publishedAt;
     }
 
-    public void setPublishedAt(String publishedAt) {
+    public void setPublishedAt(LocalDate publishedAt) {
         this.publishedAt = publishedAt;
     }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -2,10 +2,29 @@ package org.example.article;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.article.dto.ArticlePatchRequest;
+import org.example.comment.CommentCascadeCleaner;
+import org.example.comment.ContentExistenceService;
+import org.example.comment.ContentType;
+import org.example.common.BulkExecutor;
+import org.example.common.BulkResult;
+import org.example.common.ContentCache;
+import org.example.common.ContentVersion;
+import org.example.common.CursorPage;
+import org.example.common.KeysetCursor;
+import org.example.common.NdjsonExporter;
+import org.example.common.PatchExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -13,22 +32,101 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ArticleController {
 
+    // границы диапазона, когда from/to не заданы (в пределах типа date PostgreSQL)
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
     private final ArticleRepository articleRepository;
+    private final NdjsonExporter ndjsonExporter;
+    private final ContentCache<Article> articleCache;
+    private final BulkExecutor bulkExecutor;
+    private final PatchExecutor patchExecutor;
+    private final ContentExistenceService contentExistenceService;
+    private final CommentCascadeCleaner commentCascadeCleaner;
 
     @GetMapping
-    public List<Article> getAll() {
-        return articleRepository.findAll();
+    public CursorPage<Article> getAll(@RequestParam(required = false) String after,
+                                      @RequestParam(required = false) Integer limit,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                      @RequestParam(required = false) String sort) {
+        int pageSize = CursorPage.limit(limit);
+        if (from != null || to != null || sort != null) {
+            return getPublished(after, pageSize, from, to, sort);
+        }
+        long afterId = after == null ? 0L : KeysetCursor.decodeId(after);
+        List<Article> rows = articleRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, a -> KeysetCursor.encode(a.getId()));
+    }
+
+    // лента по дате публикации: keyset по (publishedAt, id), курсор несёт оба значения
+    private CursorPage<Article> getPublished(String after, int pageSize, LocalDate from, LocalDate to, String sort) {
+        boolean descending = switch (sort == null ? "publishedAt" : sort) {
+            case "publishedAt" -> false;
+            case "-publishedAt" -> true;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "sort должен быть publishedAt или -publishedAt");
+        };
+        LocalDate lower = from == null ? EARLIEST_DATE : from;
+        LocalDate upper = to == null ? LATEST_DATE : to;
+        if (lower.isAfter(upper)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from не может быть позже to");
+        }
+
+        LocalDate afterDate = descending ? upper : lower;
+        long afterId = descending ? Long.MAX_VALUE : 0L;
+        if (after != null) {
+            String[] parts = KeysetCursor.decode(after, 2);
+            try {
+                afterDate = LocalDate.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                throw KeysetCursor.invalid();
+            }
+        }
+
+        Limit rowLimit = Limit.of(pageSize + 1);
+        List<Article> rows = descending
+                ? articleRepository.findPublishedDescending(lower, upper, afterDate, afterId, rowLimit)
+                : articleRepository.findPublishedAscending(lower, upper, afterDate, afterId, rowLimit);
+        return CursorPage.of(rows, pageSize, a -> KeysetCursor.encode(a.getPublishedAt(), a.getId()));
+    }
+
+    @GetMapping(params = "view=summary")
+    public CursorPage<ArticleSummary> getSummaries(@RequestParam(required = false) String after,
+                                                   @RequestParam(required = false) Integer limit) {
+        int pageSize = CursorPage.limit(limit);
+        long afterId = after == null ? 0L : KeysetCursor.decodeId(after);
+        List<ArticleSummary> rows = articleRepository.findSummariesByIdGreaterThan(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, s -> KeysetCursor.encode(s.id()));
+    }
+
+    @GetMapping(value = "/export", produces = NdjsonExporter.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ndjsonExporter.export(articleRepository::streamAllByOrderByIdAsc);
     }
 
     @GetMapping("/{id}")
-    public Article getById(@PathVariable Long id) {
-        return articleRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found"));
+    public Article getById(@PathVariable Long id, WebRequest request) {
+        if (!articleCache.contains(id) && ContentVersion.isConditional(request)) {
+            ContentVersion version = articleRepository.findVersionById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found"));
+            if (version.checkNotModified(request)) {
+                return null;
+            }
+        }
+        Article article = articleCache.get(id, key -> articleRepository.findById(key).orElse(null));
+        if (article == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found");
+        }
+        return ContentVersion.of(article).checkNotModified(request) ? null : article;
     }
 
     @PostMapping
     public Article create(@Valid @RequestBody Article article) {
-        return articleRepository.save(article);
+        Article saved = articleRepository.save(article);
+        contentExistenceService.created(ContentType.ARTICLE, List.of(saved.getId()));
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -36,12 +134,18 @@ public class ArticleController {
         Article article = articleRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found"));
 
-        article.setTitle(request.getTitle());
-        article.setText(request.getText());
-        article.setAuthor(request.getAuthor());
-        article.setPublishedAt(request.getPublishedAt());
+        copy(request, article);
 
-        return articleRepository.save(article);
+        Article saved = articleRepository.save(article);
+        articleCache.invalidate(id);
+        return saved;
+    }
+
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void patch(@PathVariable Long id, @Valid @RequestBody ArticlePatchRequest request) {
+        patchExecutor.apply(Article.class, id, request.changes(), "Article not found");
+        articleCache.invalidate(id);
     }
 
     @DeleteMapping("/{id}")
@@ -51,5 +155,38 @@ public class ArticleController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found");
         }
         articleRepository.deleteById(id);
+        articleCache.invalidate(id);
+        contentExistenceService.deleted(ContentType.ARTICLE, List.of(id));
+        commentCascadeCleaner.contentDeleted(ContentType.ARTICLE, List.of(id));
+    }
+
+    @PostMapping("/bulk")
+    public BulkResult createBulk(@RequestBody List<Article> items) {
+        BulkResult result = bulkExecutor.create(items, articleRepository, Article::getId);
+        contentExistenceService.created(ContentType.ARTICLE, result.affectedIds());
+        return result;
+    }
+
+    @PutMapping("/bulk")
+    public BulkResult updateBulk(@RequestBody List<Article> items) {
+        BulkResult result = bulkExecutor.update(items, articleRepository, Article::getId, ArticleController::copy);
+        articleCache.invalidateAll(result.affectedIds());
+        return result;
+    }
+
+    @DeleteMapping("/bulk")
+    public BulkResult deleteBulk(@RequestBody List<Long> ids) {
+        BulkResult result = bulkExecutor.delete(ids, articleRepository, Article::getId);
+        articleCache.invalidateAll(result.affectedIds());
+        contentExistenceService.deleted(ContentType.ARTICLE, result.affectedIds());
+        commentCascadeCleaner.contentDeleted(ContentType.ARTICLE, result.affectedIds());
+        return result;
+    }
+
+    private static void copy(Article source, Article target) {
+        target.setTitle(source.getTitle());
+        target.setText(source.getText());
+        target.setAuthor(source.getAuthor());
+        target.setPublishedAt(source.getPublishedAt());
     }
 }
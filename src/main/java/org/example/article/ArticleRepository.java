@@ -1,6 +1,66 @@
 package org.example.article;
 
+import jakarta.persistence.QueryHint;
+import org.example.common.ContentVersion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ArticleRepository extends JpaRepository<Article, Long> {
+
+    List<Article> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select new org.example.article.ArticleSummary(a.id, a.title, a.author, a.publishedAt) "
+            + "from Article a where a.id > :id order by a.id")
+    List<ArticleSummary> findSummariesByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    /**
+     * Страница статей с датой публикации в [from, to] по возрастанию (publishedAt, id), строго после
+     * ключа (afterDate, afterId). Обслуживается индексом idx_articles_published_at.
+     */
+    @Query("select a from Article a "
+            + "where a.publishedAt between :from and :to "
+            + "and (a.publishedAt, a.id) > (:afterDate, :afterId) "
+            + "order by a.publishedAt asc, a.id asc")
+    List<Article> findPublishedAscending(@Param("from") LocalDate from,
+                                         @Param("to") LocalDate to,
+                                         @Param("afterDate") LocalDate afterDate,
+                                         @Param("afterId") Long afterId,
+                                         Limit limit);
+
+    /**
+     * То же по убыванию (publishedAt, id): строки строго до ключа (afterDate, afterId).
+     */
+    @Query("select a from Article a "
+            + "where a.publishedAt between :from and :to "
+            + "and (a.publishedAt, a.id) < (:afterDate, :afterId) "
+            + "order by a.publishedAt desc, a.id desc")
+    List<Article> findPublishedDescending(@Param("from") LocalDate from,
+                                          @Param("to") LocalDate to,
+                                          @Param("afterDate") LocalDate afterDate,
+                                          @Param("afterId") Long afterId,
+                                          Limit limit);
+
+    @Query("select new org.example.common.ContentVersion(a.version, a.updatedAt) from Article a where a.id = :id")
+    Optional<ContentVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select a.id from Article a where a.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Article> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,9 @@
+package org.example.article;
+
+import java.time.LocalDate;
+
+/**
+ * Строка списка статей без тела ({@code text}).
+ */
+public record ArticleSummary(Long id, String title, String author, LocalDate publishedAt) {
+}
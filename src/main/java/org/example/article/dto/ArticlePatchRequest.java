@@ -0,0 +1,48 @@
+package org.example.article.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Частичное обновление статьи: null означает «не менять».
+ */
+@Getter
+@Setter
+public class ArticlePatchRequest {
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Заголовок не должен быть пустым")
+    @Size(max = 255, message = "Заголовок не должен превышать 255 символов")
+    private String title;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Текст статьи не должен быть пустым")
+    private String text;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Автор не должен быть пустым")
+    @Size(max = 100, message = "Имя автора не должно превышать 100 символов")
+    private String author;
+
+    private LocalDate publishedAt;
+
+    public Map<String, Object> changes() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (title != null) {
+            changes.put("title", title);
+        }
+        if (text != null) {
+            changes.put("text", text);
+        }
+        if (author != null) {
+            changes.put("author", author);
+        }
+        if (publishedAt != null) {
+            changes.put("publishedAt", publishedAt);
+        }
+        return changes;
+    }
+}
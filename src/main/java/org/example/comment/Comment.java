@@ -4,7 +4,8 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.WildcardIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -14,25 +15,38 @@ import java.util.List;
 import java.util.Map;
 
 @Document(collection = "comments")
-@CompoundIndex(
-        name = "idx_content_type_content_id_created_at",
-        def = "{'contentType': 1, 'contentId': 1, 'createdAt': -1}"
-)
+// ветка контента (страницы by-content, каскадное удаление), лента автора (by-author)
+// и изменения ветки по updatedAt (changes);
+// одиночные индексы по этим полям покрываются префиксами и не создаются
+@CompoundIndexes({
+        @CompoundIndex(
+                name = "idx_content_type_content_id_created_at_id",
+                def = "{'contentType': 1, 'contentId': 1, 'createdAt': -1, '_id': -1}"
+        ),
+        @CompoundIndex(
+                name = "idx_author_created_at_id",
+                def = "{'authorUsername': 1, 'createdAt': -1, '_id': -1}"
+        ),
+        @CompoundIndex(
+                name = "idx_content_type_content_id_updated_at_id",
+                def = "{'contentType': 1, 'contentId': 1, 'updatedAt': 1, '_id': 1}"
+        )
+})
 public class Comment {
 
+    // сколько ответов отдаётся вместе с комментарием; остальные — через /api/comments/{id}/replies
+    public static final int REPLY_PREVIEW_SIZE = 3;
+
     @Id
     private String id;
 
     @NotNull
-    @Indexed(name = "idx_comment_content_type")
     private ContentType contentType;
 
     @NotNull
-    @Indexed(name = "idx_comment_content_id")
     private Long contentId;
 
     @NotBlank
-    @Indexed(name = "idx_comment_author")
     private String authorUsername;
 
     @NotBlank
@@ -43,6 +57,14 @@ public class Comment {
 
     private List<CommentReply> replies = new ArrayList<>();
 
+    // поддерживается вместе с $push, чтобы не считать $size на чтении
+    private int replyCount;
+
+    // сколько из replyCount лежит в comment_reply_buckets, а не во встроенном массиве
+    private int overflowCount;
+
+    // wildcard-индекс metadata.$**: поиск по любому ключу без заранее заданной схемы
+    @WildcardIndexed(name = "idx_comment_metadata_wildcard")
     private Map<String, Object> metadata = new HashMap<>();
 
     public Comment() {}
@@ -71,6 +93,12 @@ public class Comment {
     public List<CommentReply> getReplies() { return replies; }
     public void setReplies(List<CommentReply> replies) { this.replies = replies; }
 
+    public int getReplyCount() { return replyCount; }
+    public void setReplyCount(int replyCount) { this.replyCount = replyCount; }
+
+    public int getOverflowCount() { return overflowCount; }
+    public void setOverflowCount(int overflowCount) { this.overflowCount = overflowCount; }
+
     public Map<String, Object> getMetadata() { return metadata; }
     public void setMetadata(Map<String, Object> metadata) { this.metadata = metadata; }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package org.example.comment;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.common.KeysetCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фоновое удаление комментариев удалённого контента. Контроллеры контента ставят задачу на каждый
+ * удалённый id; задача удаляет комментарии порциями по batch-size через deleteMany по _id, вместе
+ * с корзинами ответов, с паузой между порциями, а в конце — счётчик из comment_counts. На каждую
+ * порцию пишутся следы удалений для /changes и события {@code deleted} подписчикам ветки.
+ * {@link #sweep} находит сирот, оставшихся от удалений до появления каскада.
+ */
+@Slf4j
+@Component
+public class CommentCascadeCleaner {
+
+    private final MongoTemplate mongoTemplate;
+    private final ContentExistenceService contentExistenceService;
+    private final CommentTombstoneService commentTombstoneService;
+    private final CommentStreamHub commentStreamHub;
+    private final Executor worker;
+    private final int batchSize;
+    private final Duration pause;
+
+    private final Set<ContentKey> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong jobs = new AtomicLong();
+    private final AtomicLong deletedComments = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public CommentCascadeCleaner(MongoTemplate mongoTemplate,
+                                 ContentExistenceService contentExistenceService,
+                                 CommentTombstoneService commentTombstoneService,
+                                 CommentStreamHub commentStreamHub,
+                                 @Value("${media.comments.cleanup.batch-size:1000}") int batchSize,
+                                 @Value("${media.comments.cleanup.pause:50ms}") Duration pause) {
+        this(mongoTemplate, contentExistenceService, commentTombstoneService, commentStreamHub, batchSize, pause,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "comment-cascade-cleaner");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    CommentCascadeCleaner(MongoTemplate mongoTemplate, ContentExistenceService contentExistenceService,
+                          CommentTombstoneService commentTombstoneService, CommentStreamHub commentStreamHub,
+                          int batchSize, Duration pause, Executor worker) {
+        this.mongoTemplate = mongoTemplate;
+        this.contentExistenceService = contentExistenceService;
+        this.commentTombstoneService = commentTombstoneService;
+        this.commentStreamHub = commentStreamHub;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.worker = worker;
+    }
+
+    public void contentDeleted(ContentType type, Collection<Long> contentIds) {
+        for (Long contentId : contentIds) {
+            ContentKey key = new ContentKey(type, contentId);
+            // одна задача на контент, даже если sweep найдёт его повторно
+            if (pending.add(key)) {
+                worker.execute(() -> cleanup(key));
+            }
+        }
+    }
+
+    /**
+     * Один шаг обхода comment_counts по типу в порядке contentId: id, которых нет в базе, ставятся
+     * в очередь на удаление. Следующий шаг — с {@code nextCursor}.
+     */
+    public SweepResult sweep(ContentType type, String after, int limit) {
+        long afterId = after == null ? 0L : KeysetCursor.decodeId(after);
+        Query query = Query.query(Criteria.where("contentType").is(type).and("contentId").gt(afterId))
+                .with(Sort.by(Sort.Direction.ASC, "contentId"))
+                .limit(limit);
+        query.fields().include("contentId").exclude("_id");
+        List<Long> scanned = mongoTemplate.find(query, CommentCount.class).stream()
+                .map(CommentCount::getContentId)
+                .toList();
+        if (scanned.isEmpty()) {
+            return new SweepResult(0, List.of(), null);
+        }
+
+        Set<Long> existing = contentExistenceService.existingIds(type, scanned);
+        List<Long> orphaned = new ArrayList<>();
+        for (Long contentId : scanned) {
+            if (!existing.contains(contentId)) {
+                orphaned.add(contentId);
+            }
+        }
+        contentDeleted(type, orphaned);
+
+        String nextCursor = scanned.size() < limit ? null : KeysetCursor.encode(scanned.get(scanned.size() - 1));
+        return new SweepResult(scanned.size(), orphaned, nextCursor);
+    }
+
+    public Stats stats() {
+        return new Stats(pending.size(), jobs.get(), deletedComments.get(), failed.get());
+    }
+
+    @PreDestroy
+    void stop() {
+        // незавершённые задачи не теряются насовсем: сироты находятся следующим sweep
+        if (worker instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void cleanup(ContentKey key) {
+        try {
+            deleteComments(key);
+            mongoTemplate.remove(Query.query(Criteria.where("contentType").is(key.type())
+                    .and("contentId").is(key.contentId())), CommentCount.class);
+            jobs.incrementAndGet();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            failed.incrementAndGet();
+            log.warn("Не удалось удалить комментарии {}", key, ex);
+        } finally {
+            pending.remove(key);
+        }
+    }
+
+    private void deleteComments(ContentKey key) throws InterruptedException {
+        Query chunk = Query.query(Criteria.where("contentType").is(key.type()).and("contentId").is(key.contentId()))
+                .limit(batchSize);
+        chunk.fields().include("contentType").include("contentId");
+        while (true) {
+            List<Comment> comments = mongoTemplate.find(chunk, Comment.class);
+            if (comments.isEmpty()) {
+                return;
+            }
+            List<String> ids = comments.stream().map(Comment::getId).toList();
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), Comment.class);
+            mongoTemplate.remove(Query.query(Criteria.where("commentId").in(ids)), CommentReplyBucket.class);
+            mongoTemplate.remove(Query.query(Criteria.where("commentId").in(ids)), CommentReplyNode.class);
+            commentTombstoneService.record(comments);
+            ids.forEach(id -> commentStreamHub.publish(key.type(), key.contentId(), "deleted", Map.of("id", id)));
+            deletedComments.addAndGet(ids.size());
+            if (ids.size() < batchSize) {
+                return;
+            }
+            // пауза между порциями, чтобы не забирать диск и oplog у живого трафика
+            Thread.sleep(pause.toMillis());
+        }
+    }
+
+    private record ContentKey(ContentType type, Long contentId) {
+    }
+
+    public record SweepResult(int scanned, List<Long> orphaned, String nextCursor) {
+    }
+
+    public record Stats(int pending, long jobs, long deletedComments, long failed) {
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.comment;
+
+import java.util.List;
+
+/**
+ * Ответ /api/comments/changes: созданные или изменённые комментарии, id удалённых и курсор для
+ * следующего запроса. {@code hasMore} — изменений больше, чем влезло в страницу, запросите сразу.
+ */
+public record CommentChanges(List<Comment> changed, List<String> deleted, String nextSince, boolean hasMore) {
+}
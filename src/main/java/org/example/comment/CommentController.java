@@ -1,33 +1,67 @@
 package org.example.comment;
 
 import jakarta.validation.Valid;
+import org.bson.types.ObjectId;
 import org.example.comment.dto.CreateCommentRequest;
 import org.example.comment.dto.CreateReplyRequest;
+import org.example.common.ContentVersion;
+import org.example.common.CursorPage;
+import org.example.common.KeysetCursor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/comments")
 public class CommentController {
 
+    private static final String META_PREFIX = "meta.";
+    private static final Pattern META_KEY = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final int MAX_META_FILTERS = 5;
+
+    // /changes отдаёт только записи старше этого запаса: updatedAt ставится до записи в базу,
+    // и запись с чуть меньшим updatedAt может появиться позже уже прочитанной
+    private static final Duration CHANGES_SETTLE = Duration.ofSeconds(2);
+    private static final ObjectId MIN_OBJECT_ID = new ObjectId("000000000000000000000000");
+
     private final CommentRepository commentRepository;
     private final ContentExistenceService contentExistenceService;
+    private final CommentCounterService commentCounterService;
+    private final CommentIngestionBuffer commentIngestionBuffer;
+    private final CommentStreamHub commentStreamHub;
+    private final CommentTombstoneService commentTombstoneService;
+    private final CommentReplyTreeService commentReplyTreeService;
 
     public CommentController(CommentRepository commentRepository,
-                             ContentExistenceService contentExistenceService) {
+                             ContentExistenceService contentExistenceService,
+                             CommentCounterService commentCounterService,
+                             CommentIngestionBuffer commentIngestionBuffer,
+                             CommentStreamHub commentStreamHub,
+                             CommentTombstoneService commentTombstoneService,
+                             CommentReplyTreeService commentReplyTreeService) {
         this.commentRepository = commentRepository;
         this.contentExistenceService = contentExistenceService;
+        this.commentCounterService = commentCounterService;
+        this.commentIngestionBuffer = commentIngestionBuffer;
+        this.commentStreamHub = commentStreamHub;
+        this.commentTombstoneService = commentTombstoneService;
+        this.commentReplyTreeService = commentReplyTreeService;
     }
 
     @PostMapping
-    public Comment createComment(@Valid @RequestBody CreateCommentRequest request,
-                                 Authentication authentication) {
+    public ResponseEntity<Comment> createComment(@Valid @RequestBody CreateCommentRequest request,
+                                                 Authentication authentication) {
 
         boolean exists = contentExistenceService.exists(request.getContentType(), request.getContentId());
         if (!exists) {
@@ -48,28 +82,233 @@ public class CommentController {
             comment.setMetadata(new HashMap<>(request.getMetadata()));
         }
 
-        return commentRepository.save(comment);
+        if (commentIngestionBuffer.isEnabled()) {
+            // id выдаётся сразу, документ и счётчик запишет пакетная вставка
+            comment.setId(new ObjectId().toHexString());
+            if (!commentIngestionBuffer.offer(comment)) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Слишком много комментариев, повторите позже");
+            }
+            commentStreamHub.publish(comment.getContentType(), comment.getContentId(), "created", comment);
+            return ResponseEntity.accepted().body(comment);
+        }
+
+        Comment saved = commentRepository.save(comment);
+        commentCounterService.increment(saved.getContentType(), saved.getContentId());
+        commentStreamHub.publish(saved.getContentType(), saved.getContentId(), "created", saved);
+        return ResponseEntity.ok(saved);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam("type") ContentType type,
+                             @RequestParam("contentId") Long contentId) {
+        return commentStreamHub.subscribe(type, contentId);
+    }
+
+    @GetMapping("/counts")
+    public Map<Long, Long> getCounts(@RequestParam("type") ContentType type,
+                                     @RequestParam("ids") List<Long> ids) {
+        if (ids.size() > CursorPage.MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Не больше " + CursorPage.MAX_LIMIT + " id за запрос");
+        }
+        return commentCounterService.counts(type, new LinkedHashSet<>(ids));
     }
 
     @GetMapping("/by-content")
-    public List<Comment> getByContent(@RequestParam("type") ContentType type,
-                                      @RequestParam("contentId") Long contentId) {
-        return commentRepository.findByContentTypeAndContentIdOrderByCreatedAtAsc(type, contentId);
+    public CursorPage<Comment> getByContent(@RequestParam("type") ContentType type,
+                                            @RequestParam("contentId") Long contentId,
+                                            @RequestParam(required = false) String after,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(defaultValue = "asc") String order,
+                                            WebRequest request) {
+        boolean newestFirst = switch (order) {
+            case "asc" -> false;
+            case "desc" -> true;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "order должен быть asc или desc");
+        };
+        int pageSize = CursorPage.limit(limit);
+
+        Instant afterCreatedAt = null;
+        ObjectId afterId = null;
+        if (after != null) {
+            String[] parts = KeysetCursor.decode(after, 2);
+            try {
+                afterCreatedAt = Instant.ofEpochMilli(Long.parseLong(parts[0]));
+                afterId = new ObjectId(parts[1]);
+            } catch (IllegalArgumentException ex) {
+                throw KeysetCursor.invalid();
+            }
+        }
+
+        List<Comment> rows = commentRepository.findThreadPage(
+                type, contentId, afterCreatedAt, afterId, newestFirst, pageSize + 1);
+        CursorPage<Comment> page = CursorPage.of(rows, pageSize,
+                c -> KeysetCursor.encode(c.getCreatedAt().toEpochMilli(), c.getId()));
+        return CommentVersions.ofPage(page).checkNotModified(request) ? null : page;
+    }
+
+    @GetMapping("/changes")
+    public CommentChanges getChanges(@RequestParam("type") ContentType type,
+                                     @RequestParam("contentId") Long contentId,
+                                     @RequestParam(required = false) String after,
+                                     @RequestParam(required = false) String since,
+                                     @RequestParam(required = false) Integer limit) {
+        int pageSize = CursorPage.limit(limit);
+        Instant now = Instant.now();
+        String cursor = cursorParam(after, since);
+
+        // курсор: ключ (updatedAt, _id) по комментариям, ключ (deletedAt, _id) по следам и время выдачи
+        Instant afterUpdatedAt = Instant.EPOCH;
+        ObjectId afterCommentId = MIN_OBJECT_ID;
+        Instant afterDeletedAt = Instant.EPOCH;
+        ObjectId afterTombstoneId = MIN_OBJECT_ID;
+        if (cursor != null) {
+            String[] parts = KeysetCursor.decode(cursor, 5);
+            try {
+                afterUpdatedAt = Instant.ofEpochMilli(Long.parseLong(parts[0]));
+                afterCommentId = new ObjectId(parts[1]);
+                afterDeletedAt = Instant.ofEpochMilli(Long.parseLong(parts[2]));
+                afterTombstoneId = new ObjectId(parts[3]);
+                Instant issuedAt = Instant.ofEpochMilli(Long.parseLong(parts[4]));
+                // следы старше срока хранения уже удалены TTL-индексом — по такому курсору удаления не восстановить
+                if (issuedAt.isBefore(now.minus(CommentTombstoneService.RETENTION))) {
+                    throw new ResponseStatusException(HttpStatus.GONE, "Курсор изменений устарел, загрузите ветку заново");
+                }
+            } catch (IllegalArgumentException ex) {
+                throw KeysetCursor.invalid();
+            }
+        }
+
+        Instant upTo = now.minus(CHANGES_SETTLE);
+        List<Comment> changed = commentRepository.findChangedSince(
+                type, contentId, afterUpdatedAt, afterCommentId, upTo, pageSize + 1);
+        List<CommentTombstone> tombstones = commentTombstoneService.findSince(
+                type, contentId, afterDeletedAt, afterTombstoneId, upTo, pageSize + 1);
+        boolean hasMore = changed.size() > pageSize || tombstones.size() > pageSize;
+        changed = changed.subList(0, Math.min(pageSize, changed.size()));
+        tombstones = tombstones.subList(0, Math.min(pageSize, tombstones.size()));
+
+        if (!changed.isEmpty()) {
+            Comment last = changed.get(changed.size() - 1);
+            afterUpdatedAt = last.getUpdatedAt();
+            afterCommentId = new ObjectId(last.getId());
+        }
+        if (!tombstones.isEmpty()) {
+            CommentTombstone last = tombstones.get(tombstones.size() - 1);
+            afterDeletedAt = last.getDeletedAt();
+            afterTombstoneId = new ObjectId(last.getId());
+        }
+        String nextSince = KeysetCursor.encode(afterUpdatedAt.toEpochMilli(), afterCommentId.toHexString(),
+                afterDeletedAt.toEpochMilli(), afterTombstoneId.toHexString(), now.toEpochMilli());
+        return new CommentChanges(changed, tombstones.stream().map(CommentTombstone::getId).toList(),
+                nextSince, hasMore);
+    }
+
+    @GetMapping("/by-author/{username}")
+    public CursorPage<Comment> getByAuthor(@PathVariable String username,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(required = false) Integer limit) {
+        int pageSize = CursorPage.limit(limit);
+
+        Instant afterCreatedAt = null;
+        ObjectId afterId = null;
+        if (after != null) {
+            String[] parts = KeysetCursor.decode(after, 2);
+            try {
+                afterCreatedAt = Instant.ofEpochMilli(Long.parseLong(parts[0]));
+                afterId = new ObjectId(parts[1]);
+            } catch (IllegalArgumentException ex) {
+                throw KeysetCursor.invalid();
+            }
+        }
+
+        List<Comment> rows = commentRepository.findAuthorPage(username, afterCreatedAt, afterId, pageSize + 1);
+        return CursorPage.of(rows, pageSize, c -> KeysetCursor.encode(c.getCreatedAt().toEpochMilli(), c.getId()));
+    }
+
+    @GetMapping("/search")
+    public CursorPage<Comment> search(@RequestParam(required = false) ContentType type,
+                                      @RequestParam(required = false) Long contentId,
+                                      @RequestParam(required = false) String after,
+                                      @RequestParam(required = false) Integer limit,
+                                      @RequestParam Map<String, String> params) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        params.forEach((name, value) -> {
+            if (name.startsWith(META_PREFIX)) {
+                String key = name.substring(META_PREFIX.length());
+                // ключ уходит в путь поля: без точек и $, чтобы не выйти за пределы metadata
+                if (!META_KEY.matcher(key).matches()) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный ключ метаданных: " + key);
+                }
+                metadata.put(key, value);
+            }
+        });
+        if (metadata.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Нужен хотя бы один фильтр meta.<ключ>=<значение>");
+        }
+        if (metadata.size() > MAX_META_FILTERS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Не больше " + MAX_META_FILTERS + " фильтров meta.* за запрос");
+        }
+        int pageSize = CursorPage.limit(limit);
+
+        ObjectId afterId = null;
+        if (after != null) {
+            try {
+                afterId = new ObjectId(KeysetCursor.decode(after, 1)[0]);
+            } catch (IllegalArgumentException ex) {
+                throw KeysetCursor.invalid();
+            }
+        }
+
+        List<Comment> rows = commentRepository.findByMetadata(type, contentId, metadata, afterId, pageSize + 1);
+        return CursorPage.of(rows, pageSize, c -> KeysetCursor.encode(c.getId()));
     }
 
     @GetMapping("/{id}")
-    public Comment getById(@PathVariable String id) {
-        return commentRepository.findById(id)
+    public Comment getById(@PathVariable String id, WebRequest request) {
+        if (ContentVersion.isConditional(request)) {
+            Instant updatedAt = commentRepository.findUpdatedAtById(id)
+                    .orElseThrow(() -> new CommentNotFoundException(id));
+            if (CommentVersions.of(updatedAt).checkNotModified(request)) {
+                return null;
+            }
+        }
+        Comment comment = commentRepository.findWithReplyPreview(id)
                 .orElseThrow(() -> new CommentNotFoundException(id));
+        return CommentVersions.of(comment.getUpdatedAt()).checkNotModified(request) ? null : comment;
     }
 
-    @PostMapping("/{id}/replies")
-    public Comment addReply(@PathVariable String id,
-                            @Valid @RequestBody CreateReplyRequest request,
-                            Authentication authentication) {
+    @GetMapping("/{id}/replies")
+    public CursorPage<CommentReply> getReplies(@PathVariable String id,
+                                               @RequestParam(required = false) String after,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
+        int pageSize = CursorPage.limit(limit);
+        String position = cursorParam(after, cursor);
+        // курсор — позиция в массиве replies; ответы только дописываются, позиции не сдвигаются
+        long offset = position == null ? 0L : KeysetCursor.decodeId(position);
+        if (offset > Integer.MAX_VALUE) {
+            throw KeysetCursor.invalid();
+        }
 
-        Comment comment = commentRepository.findById(id)
+        // rows — позиции окна; незаписанные позиции (null) не отдаются, но курсор их учитывает
+        List<CommentReply> rows = commentRepository.findReplies(id, (int) offset, pageSize + 1)
                 .orElseThrow(() -> new CommentNotFoundException(id));
+        List<CommentReply> items = rows.subList(0, Math.min(rows.size(), pageSize)).stream()
+                .filter(Objects::nonNull)
+                .toList();
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(items, null);
+        }
+        return new CursorPage<>(items, KeysetCursor.encode(offset + pageSize));
+    }
+
+    @PostMapping("/{id}/replies")
+    public CommentReply addReply(@PathVariable String id,
+                                 @Valid @RequestBody CreateReplyRequest request,
+                                 Authentication authentication) {
 
         String username = authentication != null ? authentication.getName() : "anonymous";
 
@@ -82,10 +321,66 @@ public class CommentController {
             reply.setMetadata(new HashMap<>(request.getMetadata()));
         }
 
-        comment.getReplies().add(reply);
-        comment.setUpdatedAt(Instant.now());
+        // $push вместо read-modify-write: параллельные ответы не затирают друг друга
+        Comment owner = commentRepository.pushReply(id, reply, reply.getCreatedAt())
+                .orElseThrow(() -> new CommentNotFoundException(id));
+        commentStreamHub.publish(owner.getContentType(), owner.getContentId(), "reply",
+                Map.of("commentId", id, "reply", reply));
+        return reply;
+    }
+
+    @PostMapping("/{id}/replies/{replyId}/replies")
+    public CommentReplyNode addNestedReply(@PathVariable String id,
+                                           @PathVariable String replyId,
+                                           @Valid @RequestBody CreateReplyRequest request,
+                                           Authentication authentication) {
+
+        String username = authentication != null ? authentication.getName() : "anonymous";
+
+        CommentReplyNode node = new CommentReplyNode();
+        node.setAuthorUsername(username);
+        node.setText(request.getText());
+        node.setCreatedAt(Instant.now());
+        if (request.getMetadata() != null) {
+            node.setMetadata(new HashMap<>(request.getMetadata()));
+        }
+
+        CommentReplyNode saved = commentReplyTreeService.add(id, replyId, node);
+        // новый ответ в глубине ветки — тоже изменение комментария для /changes
+        Comment owner = commentRepository.touch(id, saved.getCreatedAt())
+                .orElseThrow(() -> new CommentNotFoundException(id));
+        commentStreamHub.publish(owner.getContentType(), owner.getContentId(), "reply",
+                Map.of("commentId", id, "parentId", replyId, "reply", saved));
+        return saved;
+    }
+
+    @GetMapping("/{id}/replies/{replyId}/subtree")
+    public CursorPage<CommentReplyNode> getSubtree(@PathVariable String id,
+                                                   @PathVariable String replyId,
+                                                   @RequestParam(required = false) String after,
+                                                   @RequestParam(required = false) Integer depth,
+                                                   @RequestParam(required = false) Integer limit) {
+        int pageSize = CursorPage.limit(limit);
+        int maxDepth = commentReplyTreeService.maxDepth();
+        int levels = depth == null ? maxDepth : Math.max(1, Math.min(depth, maxDepth));
+        String afterPath = after == null ? null : KeysetCursor.decode(after, 1)[0];
+
+        List<CommentReplyNode> rows = commentReplyTreeService.subtree(id, replyId, afterPath, levels, pageSize + 1);
+        return CursorPage.of(rows, pageSize, n -> KeysetCursor.encode(n.getPath()));
+    }
 
-        return commentRepository.save(comment);
+    @GetMapping("/{id}/replies/{replyId}/branches")
+    public List<CommentReplyTreeService.ReplyBranch> getBranches(@PathVariable String id,
+                                                                 @PathVariable String replyId,
+                                                                 @RequestParam(defaultValue = "10") int branches,
+                                                                 @RequestParam(defaultValue = "3") int children) {
+        if (branches < 1 || branches > CommentReplyTreeService.MAX_BRANCHES
+                || children < 0 || children > CommentReplyTreeService.MAX_CHILDREN) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "branches: 1.." + CommentReplyTreeService.MAX_BRANCHES
+                            + ", children: 0.." + CommentReplyTreeService.MAX_CHILDREN);
+        }
+        return commentReplyTreeService.branches(id, replyId, branches, children);
     }
 
     @PutMapping("/{id}")
@@ -93,9 +388,6 @@ public class CommentController {
                                  @RequestBody Map<String, String> body,
                                  Authentication authentication) {
 
-        Comment comment = commentRepository.findById(id)
-                .orElseThrow(() -> new CommentNotFoundException(id));
-
         String username = authentication != null ? authentication.getName() : null;
 
         if (username == null) {
@@ -103,19 +395,25 @@ public class CommentController {
         }
 
         boolean isAdmin = hasRole(authentication, "ROLE_ADMIN");
-        boolean isAuthor = username.equals(comment.getAuthorUsername());
-
-        if (!isAuthor && !isAdmin) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Редактировать может только автор или ADMIN");
-        }
 
         String newText = body.get("text");
-        if (newText != null && !newText.isBlank()) {
-            comment.setText(newText);
-            comment.setUpdatedAt(Instant.now());
+        if (newText == null || newText.isBlank()) {
+            // менять нечего — только проверка прав
+            Comment comment = commentRepository.findWithReplyPreview(id)
+                    .orElseThrow(() -> new CommentNotFoundException(id));
+            if (!isAdmin && !username.equals(comment.getAuthorUsername())) {
+                throw forbiddenToEdit();
+            }
+            return comment;
         }
 
-        return commentRepository.save(comment);
+        // автор проверяется в фильтре findAndModify; $set только text/updatedAt, replies не переписываются
+        Comment updated = commentRepository.updateText(id, isAdmin ? null : username, newText, Instant.now())
+                .orElseThrow(() -> commentRepository.existsById(id)
+                        ? forbiddenToEdit()
+                        : new CommentNotFoundException(id));
+        commentStreamHub.publish(updated.getContentType(), updated.getContentId(), "updated", updated);
+        return updated;
     }
 
     @DeleteMapping("/{id}")
@@ -132,10 +430,17 @@ public class CommentController {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Удалять может только ADMIN");
         }
 
-
-        commentRepository.deleteById(id);
+        Comment removed = commentRepository.removeById(id)
+                .orElseThrow(() -> new CommentNotFoundException(id));
+        commentRepository.deleteReplies(id);
+        commentTombstoneService.record(List.of(removed));
+        commentCounterService.decrement(removed.getContentType(), removed.getContentId());
+        commentStreamHub.publish(removed.getContentType(), removed.getContentId(), "deleted", Map.of("id", id));
     }
 
+    private static ResponseStatusException forbiddenToEdit() {
+        return new ResponseStatusException(HttpStatus.FORBIDDEN, "Редактировать может только автор или ADMIN");
+    }
 
     private boolean hasRole(Authentication authentication, String role) {
         if (authentication == null) return false;
@@ -146,4 +451,12 @@ public class CommentController {
         }
         return false;
     }
-}
\ No newline at end of file
+
+    // after — имя курсора во всех списках комментариев; cursor (/replies) и since (/changes) — синонимы
+    private static String cursorParam(String after, String alias) {
+        if (after != null && alias != null && !after.equals(alias)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Курсор передаётся одним параметром: after");
+        }
+        return after != null ? after : alias;
+    }
+}
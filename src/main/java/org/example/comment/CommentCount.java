@@ -0,0 +1,36 @@
+package org.example.comment;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Материализованное число комментариев к одному контенту; меняется через {@code $inc}.
+ */
+@Document(collection = "comment_counts")
+@CompoundIndex(name = "idx_content_type_content_id", def = "{'contentType': 1, 'contentId': 1}", unique = true)
+public class CommentCount {
+
+    @Id
+    private String id;
+
+    private ContentType contentType;
+
+    private Long contentId;
+
+    private long count;
+
+    public CommentCount() {}
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public ContentType getContentType() { return contentType; }
+    public void setContentType(ContentType contentType) { this.contentType = contentType; }
+
+    public Long getContentId() { return contentId; }
+    public void setContentId(Long contentId) { this.contentId = contentId; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
@@ -0,0 +1,58 @@
+package org.example.comment;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Счётчики комментариев по контенту в {@code comment_counts}: запись — атомарный {@code $inc}
+ * с upsert, чтение пачки — один {@code $in} по уникальному индексу (contentType, contentId).
+ */
+@Service
+@RequiredArgsConstructor
+public class CommentCounterService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public void increment(ContentType type, Long contentId) {
+        add(type, contentId, 1);
+    }
+
+    public void decrement(ContentType type, Long contentId) {
+        add(type, contentId, -1);
+    }
+
+    public void add(ContentType type, Long contentId, long delta) {
+        Query query = Query.query(Criteria.where("contentType").is(type).and("contentId").is(contentId));
+        Update update = new Update().inc("count", delta);
+        try {
+            mongoTemplate.upsert(query, update, CommentCount.class);
+        } catch (DuplicateKeyException ex) {
+            // счётчик одновременно создал другой upsert — повторяем как обычный $inc
+            mongoTemplate.upsert(query, update, CommentCount.class);
+        }
+    }
+
+    /**
+     * Количество комментариев для каждого id в порядке запроса; контент без комментариев — 0.
+     */
+    public Map<Long, Long> counts(ContentType type, Collection<Long> contentIds) {
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        contentIds.forEach(id -> counts.put(id, 0L));
+
+        Query query = Query.query(Criteria.where("contentType").is(type).and("contentId").in(contentIds));
+        query.fields().include("contentId").include("count").exclude("_id");
+        for (CommentCount count : mongoTemplate.find(query, CommentCount.class)) {
+            counts.put(count.getContentId(), count.getCount());
+        }
+        return counts;
+    }
+}
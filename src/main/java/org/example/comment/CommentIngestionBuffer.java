@@ -0,0 +1,223 @@
+package org.example.comment;
+
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Отложенная пакетная запись комментариев (media.comments.ingestion.buffered=true): createComment
+ * кладёт документ с заранее выданным ObjectId в ограниченную очередь, фоновый поток пишет её
+ * неупорядоченными insertMany по batch-size штук или раз в flush-interval.
+ * Переполненная очередь — сигнал клиенту повторить позже (429).
+ */
+@Slf4j
+@Component
+public class CommentIngestionBuffer {
+
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final MongoTemplate mongoTemplate;
+    private final CommentCounterService commentCounterService;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final BlockingQueue<Comment> queue;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+
+    // offer() проверяет running и кладёт в очередь под read-lock, stop() выключает приём под write-lock:
+    // после выключения в очередь ничего не попадает, и финальный drain видит всё принятое
+    private final ReadWriteLock intake = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public CommentIngestionBuffer(MongoTemplate mongoTemplate,
+                                  CommentCounterService commentCounterService,
+                                  @Value("${media.comments.ingestion.buffered:false}") boolean enabled,
+                                  @Value("${media.comments.ingestion.capacity:10000}") int capacity,
+                                  @Value("${media.comments.ingestion.batch-size:500}") int batchSize,
+                                  @Value("${media.comments.ingestion.flush-interval:200ms}") Duration flushInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.commentCounterService = commentCounterService;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "comment-ingestion-flusher");
+        // если контекст не поднялся и stop() не вызван, поток не держит JVM
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Дописывает всё, что осталось в очереди, до остановки MongoTemplate.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        intake.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            intake.writeLock().unlock();
+        }
+        flusher.join();
+        List<Comment> rest = new ArrayList<>();
+        while (queue.drainTo(rest, batchSize) > 0) {
+            insert(rest);
+            rest.clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return {@code false}, если очередь заполнена или буфер уже останавливается
+     */
+    public boolean offer(Comment comment) {
+        intake.readLock().lock();
+        try {
+            if (running && queue.offer(comment)) {
+                return true;
+            }
+        } finally {
+            intake.readLock().unlock();
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    public Stats stats() {
+        long batchCount = batches.get();
+        return new Stats(enabled, queue.size(), capacity, batchCount, inserted.get(), failed.get(), rejected.get(),
+                lastBatchSize.get(), maxBatchSize.get(),
+                batchCount == 0 ? 0.0 : (double) (inserted.get() + failed.get()) / batchCount);
+    }
+
+    private void runFlusher() {
+        List<Comment> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                collect(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!batch.isEmpty()) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // ждёт первый документ не дольше flush-interval, затем добирает пакет до batch-size или до конца интервала;
+    // ожидание нарезано на короткие отрезки, чтобы stop() не ждал целый интервал
+    private void collect(List<Comment> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (running && batch.isEmpty()) {
+            Comment first = poll(deadline);
+            if (first != null) {
+                batch.add(first);
+            } else if (System.nanoTime() >= deadline) {
+                return;
+            }
+        }
+        deadline = System.nanoTime() + flushInterval.toNanos();
+        while (running && batch.size() < batchSize && System.nanoTime() < deadline) {
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.size() < batchSize) {
+                Comment next = poll(deadline);
+                if (next != null) {
+                    batch.add(next);
+                }
+            }
+        }
+    }
+
+    private Comment poll(long deadline) throws InterruptedException {
+        long wait = Math.min(deadline - System.nanoTime(), MAX_WAIT_NANOS);
+        return wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : null;
+    }
+
+    void insert(List<Comment> batch) {
+        List<Comment> written = batch;
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class)
+                    .insert(batch)
+                    .execute();
+        } catch (BulkOperationException ex) {
+            // unordered: остальные документы пакета записаны, теряются только ошибочные
+            Set<Integer> failedIndexes = ex.getErrors().stream()
+                    .map(BulkWriteError::getIndex)
+                    .collect(Collectors.toSet());
+            written = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (!failedIndexes.contains(i)) {
+                    written.add(batch.get(i));
+                }
+            }
+            failed.addAndGet(failedIndexes.size());
+            log.error("Не записано {} комментариев из пакета {}", failedIndexes.size(), batch.size(), ex);
+        } catch (RuntimeException ex) {
+            failed.addAndGet(batch.size());
+            log.error("Не записан пакет из {} комментариев", batch.size(), ex);
+            return;
+        } finally {
+            batches.incrementAndGet();
+            lastBatchSize.set(batch.size());
+            maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+        }
+
+        inserted.addAndGet(written.size());
+        Map<ContentKey, Long> perContent = written.stream()
+                .collect(Collectors.groupingBy(c -> new ContentKey(c.getContentType(), c.getContentId()),
+                        Collectors.counting()));
+        perContent.forEach((key, count) -> commentCounterService.add(key.type(), key.contentId(), count));
+    }
+
+    private record ContentKey(ContentType type, Long contentId) {
+    }
+
+    public record Stats(boolean enabled, int queueDepth, int capacity, long batches, long inserted, long failed,
+                        long rejected, long lastBatchSize, long maxBatchSize, double averageBatchSize) {
+    }
+}
@@ -0,0 +1,311 @@
+package org.example.comment;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Массовая модерация комментариев: удаление по списку id, по автору и по ветке контента за интервал
+ * времени. Каждая операция — фоновая задача, которая идёт порциями по batch-size (deleteMany по _id,
+ * корзины ответов, счётчики) с паузой между порциями; прогресс читается по id задачи.
+ */
+@Slf4j
+@Service
+public class CommentModerationService {
+
+    // ответы не вырезаются, а затираются: на позициях ответов держатся курсоры GET /{id}/replies
+    static final String REMOVED_REPLY_TEXT = "[удалено модератором]";
+
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final CommentCounterService commentCounterService;
+    private final CommentStreamHub commentStreamHub;
+    private final CommentTombstoneService commentTombstoneService;
+    private final Executor worker;
+    private final int batchSize;
+    private final Duration pause;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public CommentModerationService(MongoTemplate mongoTemplate,
+                                    CommentCounterService commentCounterService,
+                                    CommentStreamHub commentStreamHub,
+                                    CommentTombstoneService commentTombstoneService,
+                                    @Value("${media.comments.moderation.batch-size:1000}") int batchSize,
+                                    @Value("${media.comments.moderation.pause:20ms}") Duration pause) {
+        this(mongoTemplate, commentCounterService, commentStreamHub, commentTombstoneService, batchSize, pause,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "comment-moderation");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    CommentModerationService(MongoTemplate mongoTemplate, CommentCounterService commentCounterService,
+                             CommentStreamHub commentStreamHub, CommentTombstoneService commentTombstoneService,
+                             int batchSize, Duration pause, Executor worker) {
+        this.mongoTemplate = mongoTemplate;
+        this.commentCounterService = commentCounterService;
+        this.commentStreamHub = commentStreamHub;
+        this.commentTombstoneService = commentTombstoneService;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.worker = worker;
+    }
+
+    public Progress deleteByIds(List<String> ids) {
+        List<String> distinct = ids.stream().distinct().toList();
+        return submit("by-ids", job -> {
+            for (int from = 0; from < distinct.size(); from += batchSize) {
+                List<String> chunk = distinct.subList(from, Math.min(from + batchSize, distinct.size()));
+                deleteChunk(job, Criteria.where("_id").in(chunk));
+                throttle();
+            }
+        });
+    }
+
+    public Progress deleteByAuthor(String username, boolean includeReplies) {
+        return submit("by-author", job -> {
+            deleteAll(job, Criteria.where("authorUsername").is(username));
+            if (includeReplies) {
+                redactEmbeddedReplies(job, username);
+                redactBucketedReplies(job, username);
+                redactNestedReplies(job, username);
+            }
+        });
+    }
+
+    public Progress deleteByContent(ContentType type, Long contentId, Instant from, Instant to) {
+        return submit("by-content", job -> deleteAll(job, Criteria.where("contentType").is(type)
+                .and("contentId").is(contentId)
+                .and("createdAt").gte(from).lt(to)));
+    }
+
+    public Optional<Progress> progress(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::progress);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (worker instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private Progress submit(String kind, ModerationStep step) {
+        Instant now = Instant.now();
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(now.minus(JOB_RETENTION)));
+
+        Job job = new Job(UUID.randomUUID().toString(), kind, now);
+        jobs.put(job.id, job);
+        worker.execute(() -> {
+            try {
+                step.run(job);
+                job.finish(Status.DONE, null);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                job.finish(Status.FAILED, "Прервано при остановке приложения");
+            } catch (RuntimeException ex) {
+                log.warn("Задача модерации {} ({}) упала", job.id, kind, ex);
+                job.finish(Status.FAILED, ex.getMessage());
+            }
+        });
+        return job.progress();
+    }
+
+    // фильтр по индексированным полям: удалённые документы выпадают из выборки, следующая порция — снова с начала
+    private void deleteAll(Job job, Criteria filter) throws InterruptedException {
+        while (deleteChunk(job, filter) == batchSize) {
+            throttle();
+        }
+    }
+
+    private int deleteChunk(Job job, Criteria filter) {
+        Query query = Query.query(filter).limit(batchSize);
+        query.fields().include("contentType").include("contentId");
+        List<Comment> chunk = mongoTemplate.find(query, Comment.class);
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        List<String> ids = chunk.stream().map(Comment::getId).toList();
+        long deleted = mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), Comment.class)
+                .getDeletedCount();
+        mongoTemplate.remove(Query.query(Criteria.where("commentId").in(ids)), CommentReplyBucket.class);
+        mongoTemplate.remove(Query.query(Criteria.where("commentId").in(ids)), CommentReplyNode.class);
+        commentTombstoneService.record(chunk);
+
+        chunk.stream()
+                .collect(Collectors.groupingBy(c -> Map.entry(c.getContentType(), c.getContentId()),
+                        Collectors.counting()))
+                .forEach((key, count) -> commentCounterService.add(key.getKey(), key.getValue(), -count));
+        chunk.forEach(c -> commentStreamHub.publish(c.getContentType(), c.getContentId(), "deleted",
+                Map.of("id", c.getId())));
+        job.comments.addAndGet(deleted);
+        return chunk.size();
+    }
+
+    private void redactEmbeddedReplies(Job job, String username) throws InterruptedException {
+        ObjectId afterId = null;
+        while (true) {
+            List<Comment> chunk = findChunk(Comment.class, byReplyAuthor(username), afterId);
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<String> ids = chunk.stream().map(Comment::getId).toList();
+            // updatedAt сдвигается, чтобы ветка попала в /changes
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+                    redactReplies(username).set("updatedAt", Instant.now()), Comment.class);
+            job.replies.addAndGet(countByAuthor(chunk.stream().map(Comment::getReplies), username));
+            if (chunk.size() < batchSize) {
+                return;
+            }
+            afterId = new ObjectId(ids.get(ids.size() - 1));
+            throttle();
+        }
+    }
+
+    private void redactBucketedReplies(Job job, String username) throws InterruptedException {
+        Update redact = redactReplies(username);
+
+        ObjectId afterId = null;
+        while (true) {
+            List<CommentReplyBucket> chunk = findChunk(CommentReplyBucket.class, byReplyAuthor(username), afterId);
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<String> ids = chunk.stream().map(CommentReplyBucket::getId).toList();
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)), redact, CommentReplyBucket.class);
+            List<String> commentIds = chunk.stream().map(CommentReplyBucket::getCommentId).distinct().toList();
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(commentIds)),
+                    new Update().set("updatedAt", Instant.now()), Comment.class);
+            job.replies.addAndGet(countByAuthor(chunk.stream().map(CommentReplyBucket::getReplies), username));
+            if (chunk.size() < batchSize) {
+                return;
+            }
+            afterId = new ObjectId(ids.get(ids.size() - 1));
+            throttle();
+        }
+    }
+
+    // вложенные ответы затираются, а не удаляются: на них держатся пути их собственных ответов
+    private void redactNestedReplies(Job job, String username) throws InterruptedException {
+        Criteria byAuthor = Criteria.where("authorUsername").is(username).and("text").ne(REMOVED_REPLY_TEXT);
+        Update redact = new Update()
+                .set("text", REMOVED_REPLY_TEXT)
+                .set("metadata", Map.of());
+
+        ObjectId afterId = null;
+        while (true) {
+            List<CommentReplyNode> chunk = findChunk(CommentReplyNode.class, byAuthor, afterId);
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<String> ids = chunk.stream().map(CommentReplyNode::getId).toList();
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)), redact, CommentReplyNode.class);
+            List<String> commentIds = chunk.stream().map(CommentReplyNode::getCommentId).distinct().toList();
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(commentIds)),
+                    new Update().set("updatedAt", Instant.now()), Comment.class);
+            job.replies.addAndGet(chunk.size());
+            if (chunk.size() < batchSize) {
+                return;
+            }
+            afterId = new ObjectId(ids.get(ids.size() - 1));
+            throttle();
+        }
+    }
+
+    // полей автора ответов нет в индексах: обход идёт по _id, чтобы каждый документ читался один раз
+    private <T> List<T> findChunk(Class<T> type, Criteria filter, ObjectId afterId) {
+        Criteria criteria = afterId == null ? filter : new Criteria().andOperator(filter, Criteria.where("_id").gt(afterId));
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(batchSize);
+        query.fields().include("replies.authorUsername").include("replies.text").include("commentId");
+        return mongoTemplate.find(query, type);
+    }
+
+    private static Criteria byReplyAuthor(String username) {
+        return Criteria.where("replies").elemMatch(
+                Criteria.where("authorUsername").is(username).and("text").ne(REMOVED_REPLY_TEXT));
+    }
+
+    private static Update redactReplies(String username) {
+        return new Update()
+                .set("replies.$[r].text", REMOVED_REPLY_TEXT)
+                .set("replies.$[r].metadata", Map.of())
+                .filterArray(Criteria.where("r.authorUsername").is(username));
+    }
+
+    private static long countByAuthor(Stream<List<CommentReply>> replies, String username) {
+        return replies.flatMap(List::stream)
+                .filter(r -> username.equals(r.getAuthorUsername()) && !REMOVED_REPLY_TEXT.equals(r.getText()))
+                .count();
+    }
+
+    private void throttle() throws InterruptedException {
+        // пауза между порциями: не забирать у primary всю запись и oplog
+        Thread.sleep(pause.toMillis());
+    }
+
+    @FunctionalInterface
+    private interface ModerationStep {
+        void run(Job job) throws InterruptedException;
+    }
+
+    public enum Status { RUNNING, DONE, FAILED }
+
+    public record Progress(String id, String kind, Status status, long deletedComments, long removedReplies,
+                           Instant startedAt, Instant finishedAt, String error) {
+    }
+
+    private static final class Job {
+
+        private final String id;
+        private final String kind;
+        private final Instant startedAt;
+        private final AtomicLong comments = new AtomicLong();
+        private final AtomicLong replies = new AtomicLong();
+        private volatile Status status = Status.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Job(String id, String kind, Instant startedAt) {
+            this.id = id;
+            this.kind = kind;
+            this.startedAt = startedAt;
+        }
+
+        private void finish(Status status, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        private Progress progress() {
+            return new Progress(id, kind, status, comments.get(), replies.get(), startedAt, finishedAt, error);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.comment;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 
 import java.time.Instant;
@@ -21,6 +22,9 @@ public class CommentReply {
     // гибкая схема метаданных
     private Map<String, Object> metadata = new HashMap<>();
 
+    // позиция в переполнении, выданная $inc overflowCount; только у ответов в корзинах
+    private Integer slot;
+
     public CommentReply() {
     }
 
@@ -72,4 +76,13 @@ public class CommentReply {
     public void setMetadata(Map<String, Object> metadata) {
         this.metadata = metadata;
     }
+
+    @JsonIgnore
+    public Integer getSlot() {
+        return slot;
+    }
+
+    public void setSlot(Integer slot) {
+        this.slot = slot;
+    }
 }
@@ -0,0 +1,41 @@
+package org.example.comment;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ответы комментария сверх встроенного префикса: корзины фиксированного размера,
+ * {@code seq} — номер корзины (0, 1, ...). Внутри корзины ответы упорядочены по
+ * {@link CommentReply#getSlot()}; позиция, для которой запись не дошла, просто отсутствует.
+ */
+@Document(collection = "comment_reply_buckets")
+@CompoundIndex(name = "idx_comment_id_seq", def = "{'commentId': 1, 'seq': 1}", unique = true)
+public class CommentReplyBucket {
+
+    @Id
+    private String id;
+
+    private String commentId;
+
+    private int seq;
+
+    private List<CommentReply> replies = new ArrayList<>();
+
+    public CommentReplyBucket() {}
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getCommentId() { return commentId; }
+    public void setCommentId(String commentId) { this.commentId = commentId; }
+
+    public int getSeq() { return seq; }
+    public void setSeq(int seq) { this.seq = seq; }
+
+    public List<CommentReply> getReplies() { return replies; }
+    public void setReplies(List<CommentReply> replies) { this.replies = replies; }
+}
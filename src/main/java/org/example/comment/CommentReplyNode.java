@@ -0,0 +1,73 @@
+package org.example.comment;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ответ на ответ. {@code path} — материализованный путь от ответа верхнего уровня:
+ * {@code <id ответа>/<id узла>/<id узла>...}; id узлов — ObjectId, поэтому сортировка по path даёт
+ * обход в глубину с братьями в порядке создания, а поддерево — диапазон [path/, path0).
+ * {@code depth}: 1 — ответ на ответ верхнего уровня.
+ */
+@Document(collection = "comment_reply_nodes")
+@CompoundIndexes({
+        @CompoundIndex(name = "idx_comment_id_path", def = "{'commentId': 1, 'path': 1}", unique = true),
+        @CompoundIndex(name = "idx_comment_id_parent_id_path", def = "{'commentId': 1, 'parentId': 1, 'path': 1}"),
+        @CompoundIndex(name = "idx_comment_id_depth_path", def = "{'commentId': 1, 'depth': 1, 'path': 1}")
+})
+public class CommentReplyNode {
+
+    @Id
+    private String id;
+
+    private String commentId;
+
+    private String parentId;
+
+    private String path;
+
+    private int depth;
+
+    private String authorUsername;
+
+    private String text;
+
+    private Instant createdAt = Instant.now();
+
+    private Map<String, Object> metadata = new HashMap<>();
+
+    public CommentReplyNode() {}
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getCommentId() { return commentId; }
+    public void setCommentId(String commentId) { this.commentId = commentId; }
+
+    public String getParentId() { return parentId; }
+    public void setParentId(String parentId) { this.parentId = parentId; }
+
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    public int getDepth() { return depth; }
+    public void setDepth(int depth) { this.depth = depth; }
+
+    public String getAuthorUsername() { return authorUsername; }
+    public void setAuthorUsername(String authorUsername) { this.authorUsername = authorUsername; }
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Map<String, Object> getMetadata() { return metadata; }
+    public void setMetadata(Map<String, Object> metadata) { this.metadata = metadata; }
+}
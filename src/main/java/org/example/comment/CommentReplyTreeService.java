@@ -0,0 +1,164 @@
+package org.example.comment;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.LookupOperation;
+import org.springframework.data.mongodb.core.aggregation.VariableOperators;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Вложенные ответы (ответы на ответы) в {@code comment_reply_nodes}. Корень дерева — ответ верхнего
+ * уровня из встроенного массива или корзины; поддерево до заданной глубины читается по индексу
+ * {@code idx_comment_id_depth_path}, ветки с первыми детьми — одной агрегацией по {@code idx_comment_id_parent_id_path}.
+ */
+@Service
+public class CommentReplyTreeService {
+
+    public static final int MAX_BRANCHES = 50;
+    public static final int MAX_CHILDREN = 20;
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxDepth;
+
+    public CommentReplyTreeService(MongoTemplate mongoTemplate,
+                                   @Value("${media.comments.replies.max-depth:6}") int maxDepth) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxDepth = maxDepth;
+    }
+
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Добавляет ответ на ответ {@code parentId}: 404, если такого ответа у комментария нет,
+     * 400 — если ветка глубже media.comments.replies.max-depth.
+     */
+    public CommentReplyNode add(String commentId, String parentId, CommentReplyNode node) {
+        Position parent = locate(commentId, parentId);
+        if (parent == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Reply not found");
+        }
+        if (parent.depth() >= maxDepth) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Слишком глубокая ветка ответов: не больше " + maxDepth + " уровней");
+        }
+
+        String id = new ObjectId().toHexString();
+        node.setId(id);
+        node.setCommentId(commentId);
+        node.setParentId(parentId);
+        node.setPath(parent.path() + "/" + id);
+        node.setDepth(parent.depth() + 1);
+        return mongoTemplate.insert(node);
+    }
+
+    /**
+     * Поддерево ответа {@code replyId} в порядке обхода в глубину, не глубже {@code depth} уровней под ним
+     * (и не глубже media.comments.replies.max-depth), начиная после {@code afterPath}; 404, если такого ответа
+     * у комментария нет. Читается по {@code idx_comment_id_depth_path}: каждый уровень — свой диапазон
+     * [path/, path0), сервер сливает их в порядке path, поэтому узлы глубже лимита не сканируются и с limit
+     * читается не больше limit узлов на уровень.
+     */
+    public List<CommentReplyNode> subtree(String commentId, String replyId, String afterPath, int depth, int limit) {
+        Position root = locate(commentId, replyId);
+        if (root == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Reply not found");
+        }
+        String from = root.path() + "/";
+        // '0' следует за '/' в ASCII: [path/, path0) — ровно потомки
+        String to = root.path() + "0";
+        if (afterPath != null && !(afterPath.startsWith(from) && afterPath.compareTo(to) < 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный курсор");
+        }
+        int deepest = Math.min(root.depth() + Math.max(1, Math.min(depth, maxDepth)), maxDepth);
+        if (deepest <= root.depth()) {
+            return List.of();
+        }
+
+        // уровни перечислены явно: $in по depth даёт по диапазону индекса на уровень, слитых по path без сортировки
+        List<Integer> levels = IntStream.rangeClosed(root.depth() + 1, deepest).boxed().toList();
+        Criteria path = afterPath == null
+                ? Criteria.where("path").gte(from).lt(to)
+                : Criteria.where("path").gt(afterPath).lt(to);
+        Query query = Query.query(Criteria.where("commentId").is(commentId)
+                        .andOperator(Criteria.where("depth").in(levels), path))
+                .with(Sort.by(Sort.Direction.ASC, "path"))
+                .withHint("idx_comment_id_depth_path")
+                .limit(limit);
+        return mongoTemplate.find(query, CommentReplyNode.class);
+    }
+
+    /**
+     * Первые {@code branches} прямых ответов на {@code replyId}, у каждого — первые {@code children} его ответов.
+     * Одна агрегация: головы веток — диапазон {@code idx_comment_id_parent_id_path} с limit, дети каждой —
+     * {@code $lookup} с тем же индексом и limit внутри. Один запрос к серверу, и сколько бы ответов ни было
+     * в ветке, читается не больше branches × (children + 1) узлов.
+     */
+    public List<ReplyBranch> branches(String commentId, String replyId, int branches, int children) {
+        // на один больше лимита — чтобы знать, есть ли ещё
+        AggregationOperation childrenOfHead = context -> new Document("$match", new Document("commentId", commentId)
+                .append("$expr", new Document("$eq", List.of("$parentId", "$$head"))));
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("commentId").is(commentId).and("parentId").is(replyId)),
+                Aggregation.sort(Sort.by(Sort.Direction.ASC, "path")),
+                Aggregation.limit(branches),
+                LookupOperation.newLookup()
+                        .from("comment_reply_nodes")
+                        .let(VariableOperators.Let.just(VariableOperators.Let.ExpressionVariable.newVariable("head")
+                                .forExpression(new Document("$toString", "$_id"))))
+                        .pipeline(childrenOfHead,
+                                Aggregation.sort(Sort.by(Sort.Direction.ASC, "path")),
+                                Aggregation.limit(children + 1L))
+                        .as("children"));
+
+        MongoConverter converter = mongoTemplate.getConverter();
+        List<ReplyBranch> result = new ArrayList<>(branches);
+        for (Document head : mongoTemplate.aggregate(aggregation, CommentReplyNode.class, Document.class)) {
+            List<CommentReplyNode> nodes = head.getList("children", Document.class).stream()
+                    .map(child -> converter.read(CommentReplyNode.class, child))
+                    .toList();
+            result.add(new ReplyBranch(converter.read(CommentReplyNode.class, head),
+                    nodes.subList(0, Math.min(children, nodes.size())), nodes.size() > children));
+        }
+        return result;
+    }
+
+    // узел дерева или ответ верхнего уровня (во встроенном массиве либо в корзине)
+    private Position locate(String commentId, String replyId) {
+        if (ObjectId.isValid(replyId)) {
+            Query query = Query.query(Criteria.where("_id").is(replyId).and("commentId").is(commentId));
+            query.fields().include("path").include("depth");
+            CommentReplyNode node = mongoTemplate.findOne(query, CommentReplyNode.class);
+            if (node != null) {
+                return new Position(node.getPath(), node.getDepth());
+            }
+        }
+        boolean topLevel = mongoTemplate.exists(
+                Query.query(Criteria.where("_id").is(commentId).and("replies.id").is(replyId)), Comment.class)
+                || mongoTemplate.exists(
+                Query.query(Criteria.where("commentId").is(commentId).and("replies.id").is(replyId)),
+                CommentReplyBucket.class);
+        return topLevel ? new Position(replyId, 0) : null;
+    }
+
+    private record Position(String path, int depth) {
+    }
+
+    public record ReplyBranch(CommentReplyNode reply, List<CommentReplyNode> children, boolean hasMoreChildren) {
+    }
+}
@@ -2,12 +2,5 @@ package org.example.comment;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-import java.util.List;
-
-public interface CommentRepository extends MongoRepository<Comment, String> {
-
-    List<Comment> findByContentTypeAndContentIdOrderByCreatedAtAsc(
-            ContentType contentType,
-            Long contentId
-    );
+public interface CommentRepository extends MongoRepository<Comment, String>, CommentRepositoryCustom {
 }
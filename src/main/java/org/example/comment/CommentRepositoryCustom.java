@@ -0,0 +1,96 @@
+package org.example.comment;
+
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface CommentRepositoryCustom {
+
+    /**
+     * Только {@code updatedAt} комментария, без текста и ответов.
+     */
+    Optional<Instant> findUpdatedAtById(String id);
+
+    /**
+     * Комментарий с первыми {@link Comment#REPLY_PREVIEW_SIZE} ответами ({@code $slice}).
+     */
+    Optional<Comment> findWithReplyPreview(String id);
+
+    /**
+     * Ответы комментария на позициях [skip, skip + limit) сквозь встроенный массив и корзины
+     * {@code comment_reply_buckets}; пусто, если комментария нет. Длина списка — число занятых
+     * позиций в окне; на месте позиции, которая зарезервирована, но так и не записана, — {@code null}.
+     */
+    Optional<List<CommentReply>> findReplies(String commentId, int skip, int limit);
+
+    /**
+     * Страница ветки комментариев к контенту в порядке (createdAt, _id), строго после ключа
+     * (afterCreatedAt, afterId); без ключа — с начала ветки. Читается диапазон индекса
+     * {@code idx_content_type_content_id_created_at_id}; ответы урезаны до превью.
+     *
+     * <p>Ключ записан не как {@code $or} (планировщик раскладывает его на два скана со SORT_MERGE),
+     * а как граница {@code createdAt >= ключа} плюс {@code $nor} по строкам с тем же createdAt и _id
+     * не дальше ключа: один IXSCAN без SORT в памяти. Так же устроены {@link #findChangedSince} и
+     * {@link #findAuthorPage}.
+     */
+    List<Comment> findThreadPage(ContentType contentType, Long contentId,
+                                 Instant afterCreatedAt, ObjectId afterId,
+                                 boolean newestFirst, int limit);
+
+    /**
+     * Комментарии ветки, созданные или изменённые после ключа (afterUpdatedAt, afterId) и не позже
+     * {@code upTo}, в порядке (updatedAt, _id). Читается диапазон индекса
+     * {@code idx_content_type_content_id_updated_at_id}; ответы урезаны до превью.
+     */
+    List<Comment> findChangedSince(ContentType contentType, Long contentId, Instant afterUpdatedAt,
+                                   ObjectId afterId, Instant upTo, int limit);
+
+    /**
+     * Комментарии автора от новых к старым, строго после ключа (afterCreatedAt, afterId); без ключа —
+     * с самого нового. Читается диапазон индекса {@code idx_author_created_at_id}.
+     */
+    List<Comment> findAuthorPage(String authorUsername, Instant afterCreatedAt, ObjectId afterId, int limit);
+
+    /**
+     * Комментарии, у которых metadata содержит все пары {@code metadata} (значение сравнивается как
+     * строка, число или boolean), в порядке _id после {@code afterId}. contentType/contentId
+     * необязательны. Ответы урезаны до превью.
+     */
+    List<Comment> findByMetadata(ContentType contentType, Long contentId, Map<String, String> metadata,
+                                 ObjectId afterId, int limit);
+
+    /**
+     * Дописывает ответ без чтения документа: пока встроенный массив не заполнен — атомарным
+     * {@code $push} в него, дальше — в корзину {@code comment_reply_buckets} под позицией, выданной
+     * {@code $inc overflowCount}. Обновляет replyCount и updatedAt.
+     *
+     * @return contentType и contentId комментария; пусто, если комментария нет
+     */
+    Optional<Comment> pushReply(String commentId, CommentReply reply, Instant updatedAt);
+
+    /**
+     * Меняет только text и updatedAt одним findAndModify; если {@code authorUsername} задан, он входит
+     * в фильтр (правка автором), {@code null} — правка без проверки автора (ADMIN). Возвращает
+     * обновлённый комментарий с превью ответов; пусто, если комментария нет или автор не совпал.
+     */
+    Optional<Comment> updateText(String id, String authorUsername, String text, Instant updatedAt);
+
+    /**
+     * Удаляет комментарий и возвращает его contentType и contentId; пусто, если комментария нет.
+     */
+    Optional<Comment> removeById(String id);
+
+    /**
+     * Ставит комментарию updatedAt (новый вложенный ответ) и возвращает его contentType и contentId;
+     * пусто, если комментария нет.
+     */
+    Optional<Comment> touch(String id, Instant updatedAt);
+
+    /**
+     * Удаляет корзины ответов и вложенные ответы комментария.
+     */
+    void deleteReplies(String commentId);
+}
@@ -0,0 +1,271 @@
+package org.example.comment;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class CommentRepositoryImpl implements CommentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final int embeddedLimit;
+    private final int bucketSize;
+
+    public CommentRepositoryImpl(MongoTemplate mongoTemplate,
+                                 @Value("${media.comments.replies.embedded-limit:100}") int embeddedLimit,
+                                 @Value("${media.comments.replies.bucket-size:100}") int bucketSize) {
+        if (embeddedLimit < 1 || bucketSize < 1) {
+            throw new IllegalArgumentException("embedded-limit и bucket-size должны быть положительными");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.embeddedLimit = embeddedLimit;
+        this.bucketSize = bucketSize;
+    }
+
+    @Override
+    public Optional<Instant> findUpdatedAtById(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("updatedAt");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Comment.class))
+                .map(Comment::getUpdatedAt);
+    }
+
+    @Override
+    public Optional<Comment> findWithReplyPreview(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().slice("replies", Comment.REPLY_PREVIEW_SIZE);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Comment.class));
+    }
+
+    @Override
+    public Optional<List<CommentReply>> findReplies(String commentId, int skip, int limit) {
+        Query query = Query.query(Criteria.where("_id").is(commentId));
+        query.fields().include("replyCount").include("overflowCount").slice("replies", skip, limit);
+        Comment comment = mongoTemplate.findOne(query, Comment.class);
+        if (comment == null) {
+            return Optional.empty();
+        }
+
+        List<CommentReply> page = new ArrayList<>(comment.getReplies());
+        int missing = limit - page.size();
+        // встроенный префикс кончился — продолжаем из корзин
+        int embedded = comment.getReplyCount() - comment.getOverflowCount();
+        int overflowFrom = Math.max(0, skip - embedded);
+        if (missing > 0 && overflowFrom < comment.getOverflowCount()) {
+            page.addAll(findBucketedReplies(commentId, overflowFrom,
+                    Math.min(missing, comment.getOverflowCount() - overflowFrom)));
+        }
+        return Optional.of(page);
+    }
+
+    @Override
+    public List<Comment> findThreadPage(ContentType contentType, Long contentId,
+                                        Instant afterCreatedAt, ObjectId afterId,
+                                        boolean newestFirst, int limit) {
+        Criteria criteria = Criteria.where("contentType").is(contentType).and("contentId").is(contentId);
+        if (afterCreatedAt != null) {
+            criteria = newestFirst
+                    ? criteria.and("createdAt").lte(afterCreatedAt)
+                    .norOperator(Criteria.where("createdAt").is(afterCreatedAt).and("_id").gte(afterId))
+                    : criteria.and("createdAt").gte(afterCreatedAt)
+                    .norOperator(Criteria.where("createdAt").is(afterCreatedAt).and("_id").lte(afterId));
+        }
+
+        Sort.Direction direction = newestFirst ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Query query = Query.query(criteria)
+                .with(Sort.by(direction, "createdAt").and(Sort.by(direction, "_id")))
+                .limit(limit);
+        query.fields().slice("replies", Comment.REPLY_PREVIEW_SIZE);
+        return mongoTemplate.find(query, Comment.class);
+    }
+
+    @Override
+    public List<Comment> findChangedSince(ContentType contentType, Long contentId, Instant afterUpdatedAt,
+                                          ObjectId afterId, Instant upTo, int limit) {
+        Criteria criteria = Criteria.where("contentType").is(contentType).and("contentId").is(contentId)
+                .and("updatedAt").gte(afterUpdatedAt).lte(upTo)
+                .norOperator(Criteria.where("updatedAt").is(afterUpdatedAt).and("_id").lte(afterId));
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "updatedAt").and(Sort.by(Sort.Direction.ASC, "_id")))
+                .limit(limit);
+        query.fields().slice("replies", Comment.REPLY_PREVIEW_SIZE);
+        return mongoTemplate.find(query, Comment.class);
+    }
+
+    @Override
+    public List<Comment> findAuthorPage(String authorUsername, Instant afterCreatedAt, ObjectId afterId, int limit) {
+        Criteria criteria = Criteria.where("authorUsername").is(authorUsername);
+        if (afterCreatedAt != null) {
+            criteria = criteria.and("createdAt").lte(afterCreatedAt)
+                    .norOperator(Criteria.where("createdAt").is(afterCreatedAt).and("_id").gte(afterId));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(limit);
+        query.fields().slice("replies", Comment.REPLY_PREVIEW_SIZE);
+        return mongoTemplate.find(query, Comment.class);
+    }
+
+    @Override
+    public List<Comment> findByMetadata(ContentType contentType, Long contentId, Map<String, String> metadata,
+                                        ObjectId afterId, int limit) {
+        Criteria criteria = new Criteria();
+        if (contentType != null) {
+            criteria = criteria.and("contentType").is(contentType);
+        }
+        if (contentId != null) {
+            criteria = criteria.and("contentId").is(contentId);
+        }
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            criteria = criteria.and("metadata." + entry.getKey()).in(metadataValues(entry.getValue()));
+        }
+        if (afterId != null) {
+            criteria = criteria.and("_id").gt(afterId);
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(limit);
+        query.fields().slice("replies", Comment.REPLY_PREVIEW_SIZE);
+        return mongoTemplate.find(query, Comment.class);
+    }
+
+    @Override
+    public Optional<Comment> pushReply(String commentId, CommentReply reply, Instant updatedAt) {
+        // после первой корзины ответы идут только в корзины: позиция ответа из корзины —
+        // (replyCount - overflowCount) + slot, встроенный префикс не должен расти
+        Query notFull = Query.query(Criteria.where("_id").is(commentId)
+                .and("replies." + (embeddedLimit - 1)).exists(false)
+                .and("overflowCount").not().gt(0));
+        notFull.fields().include("contentType").include("contentId");
+        Update embed = new Update()
+                .push("replies", reply)
+                .inc("replyCount", 1)
+                .set("updatedAt", updatedAt);
+        Comment embedded = mongoTemplate.findAndModify(notFull, embed, Comment.class);
+        if (embedded != null) {
+            return Optional.of(embedded);
+        }
+
+        // встроенный массив заполнен: атомарный $inc выдаёт ответу номер в переполнении,
+        // по нему выбирается корзина
+        Query query = Query.query(Criteria.where("_id").is(commentId));
+        query.fields().include("overflowCount").include("contentType").include("contentId");
+        Update count = new Update()
+                .inc("overflowCount", 1)
+                .inc("replyCount", 1)
+                .set("updatedAt", updatedAt);
+        Comment counted = mongoTemplate.findAndModify(query, count,
+                FindAndModifyOptions.options().returnNew(true), Comment.class);
+        if (counted == null) {
+            return Optional.empty();
+        }
+
+        // параллельные $push приходят в корзину в любом порядке: ответ несёт свою позицию,
+        // а $sort держит корзину упорядоченной по ней
+        int slot = counted.getOverflowCount() - 1;
+        reply.setSlot(slot);
+        Query bucket = Query.query(Criteria.where("commentId").is(commentId).and("seq").is(slot / bucketSize));
+        Update push = new Update().push("replies").sort(Sort.by(Sort.Direction.ASC, "slot")).each(reply);
+        try {
+            mongoTemplate.upsert(bucket, push, CommentReplyBucket.class);
+        } catch (DuplicateKeyException ex) {
+            // корзину одновременно создал другой upsert — теперь она есть, повторяем как обычный $push
+            mongoTemplate.upsert(bucket, push, CommentReplyBucket.class);
+        }
+        return Optional.of(counted);
+    }
+
+    @Override
+    public Optional<Comment> updateText(String id, String authorUsername, String text, Instant updatedAt) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (authorUsername != null) {
+            criteria = criteria.and("authorUsername").is(authorUsername);
+        }
+        Query query = Query.query(criteria);
+        query.fields().slice("replies", Comment.REPLY_PREVIEW_SIZE);
+        Update update = new Update().set("text", text).set("updatedAt", updatedAt);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Comment.class));
+    }
+
+    @Override
+    public Optional<Comment> removeById(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("contentType").include("contentId");
+        return Optional.ofNullable(mongoTemplate.findAndRemove(query, Comment.class));
+    }
+
+    @Override
+    public Optional<Comment> touch(String id, Instant updatedAt) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("contentType").include("contentId");
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, new Update().set("updatedAt", updatedAt),
+                Comment.class));
+    }
+
+    @Override
+    public void deleteReplies(String commentId) {
+        Query byComment = Query.query(Criteria.where("commentId").is(commentId));
+        mongoTemplate.remove(byComment, CommentReplyBucket.class);
+        mongoTemplate.remove(byComment, CommentReplyNode.class);
+    }
+
+    // из query-строки приходит текст, а в metadata клиенты кладут и числа, и boolean;
+    // числа в MongoDB сравниваются без учёта типа, поэтому хватает одного числового варианта
+    private static List<Object> metadataValues(String raw) {
+        List<Object> values = new ArrayList<>();
+        values.add(raw);
+        if ("true".equals(raw) || "false".equals(raw)) {
+            values.add(Boolean.parseBoolean(raw));
+        }
+        try {
+            values.add(Long.parseLong(raw));
+        } catch (NumberFormatException notLong) {
+            try {
+                values.add(Double.parseDouble(raw));
+            } catch (NumberFormatException notNumber) {
+                // только строка
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Ответы из корзин на позициях переполнения [from, from + limit), разложенные по своим slot;
+     * незаписанные позиции остаются {@code null}.
+     */
+    private List<CommentReply> findBucketedReplies(String commentId, int from, int limit) {
+        int firstSeq = from / bucketSize;
+        int lastSeq = (from + limit - 1) / bucketSize;
+        Query query = Query.query(Criteria.where("commentId").is(commentId).and("seq").gte(firstSeq).lte(lastSeq))
+                .with(Sort.by(Sort.Direction.ASC, "seq"));
+
+        CommentReply[] window = new CommentReply[limit];
+        for (CommentReplyBucket bucket : mongoTemplate.find(query, CommentReplyBucket.class)) {
+            List<CommentReply> replies = bucket.getReplies();
+            for (int i = 0; i < replies.size(); i++) {
+                CommentReply reply = replies.get(i);
+                // ответы, записанные до появления slot, лежат подряд с начала корзины
+                int slot = reply.getSlot() != null ? reply.getSlot() : bucket.getSeq() * bucketSize + i;
+                if (slot >= from && slot < from + limit) {
+                    window[slot - from] = reply;
+                }
+            }
+        }
+        return Arrays.asList(window);
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.comment;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Рассылка событий ветки комментариев подписчикам SSE внутри процесса. Публикация только кладёт
+ * событие в очередь каждого подписчика; отправкой занимается небольшой пул потоков. Подписчик,
+ * чья очередь переполнена (медленный клиент), отключается — пусть переподключится и дочитает
+ * пропущенное через /api/comments/by-content.
+ */
+@Slf4j
+@Component
+public class CommentStreamHub {
+
+    private final Map<ContentKey, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Executor sender;
+    private final int bufferSize;
+    private final Duration timeout;
+
+    public CommentStreamHub(@Value("${media.comments.stream.buffer-size:256}") int bufferSize,
+                            @Value("${media.comments.stream.timeout:30m}") Duration timeout,
+                            @Value("${media.comments.stream.sender-threads:4}") int senderThreads) {
+        this(bufferSize, timeout, Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "comment-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    CommentStreamHub(int bufferSize, Duration timeout, Executor sender) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.sender = sender;
+    }
+
+    public SseEmitter subscribe(ContentType type, Long contentId) {
+        ContentKey key = new ContentKey(type, contentId);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(key, emitter, new ArrayBlockingQueue<>(bufferSize));
+
+        // add внутри compute: remove() последнего подписчика не выкинет набор между созданием и add
+        subscribers.compute(key, (k, set) -> {
+            Set<Subscriber> watchers = set != null ? set : ConcurrentHashMap.newKeySet();
+            watchers.add(subscriber);
+            return watchers;
+        });
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+        return emitter;
+    }
+
+    public void publish(ContentType type, Long contentId, String event, Object payload) {
+        Set<Subscriber> watchers = subscribers.get(new ContentKey(type, contentId));
+        if (watchers == null) {
+            return;
+        }
+        Event message = new Event(event, payload);
+        for (Subscriber subscriber : watchers) {
+            if (!subscriber.queue().offer(message)) {
+                remove(subscriber);
+                subscriber.emitter().complete();
+                continue;
+            }
+            schedule(subscriber);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter().complete()));
+        subscribers.clear();
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    // не больше одной задачи отправки на подписчика: порядок событий сохраняется
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining().compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Event event;
+            while ((event = subscriber.queue().poll()) != null) {
+                subscriber.emitter().send(SseEmitter.event()
+                        .name(event.name())
+                        .data(event.payload(), MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Подписчик {} отключился", subscriber.key(), ex);
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.draining().set(false);
+        }
+        // событие могло прийти между последним poll и сбросом флага
+        if (!subscriber.queue().isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.key(), (key, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private record ContentKey(ContentType type, Long contentId) {
+    }
+
+    private record Event(String name, Object payload) {
+    }
+
+    private record Subscriber(ContentKey key, SseEmitter emitter, Queue<Event> queue, AtomicBoolean draining) {
+
+        Subscriber(ContentKey key, SseEmitter emitter, Queue<Event> queue) {
+            this(key, emitter, queue, new AtomicBoolean());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.comment;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * След удалённого комментария для /api/comments/changes; id совпадает с id комментария.
+ * Удаляется TTL-индексом через {@link CommentTombstoneService#RETENTION}.
+ */
+@Document(collection = "comment_tombstones")
+@CompoundIndex(name = "idx_content_type_content_id_deleted_at_id",
+        def = "{'contentType': 1, 'contentId': 1, 'deletedAt': 1, '_id': 1}")
+public class CommentTombstone {
+
+    @Id
+    private String id;
+
+    private ContentType contentType;
+
+    private Long contentId;
+
+    @Indexed(name = "idx_tombstone_deleted_at_ttl", expireAfter = "30d")
+    private Instant deletedAt;
+
+    public CommentTombstone() {}
+
+    public CommentTombstone(String id, ContentType contentType, Long contentId, Instant deletedAt) {
+        this.id = id;
+        this.contentType = contentType;
+        this.contentId = contentId;
+        this.deletedAt = deletedAt;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public ContentType getContentType() { return contentType; }
+    public void setContentType(ContentType contentType) { this.contentType = contentType; }
+
+    public Long getContentId() { return contentId; }
+    public void setContentId(Long contentId) { this.contentId = contentId; }
+
+    public Instant getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(Instant deletedAt) { this.deletedAt = deletedAt; }
+}
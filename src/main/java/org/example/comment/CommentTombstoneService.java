@@ -0,0 +1,72 @@
+package org.example.comment;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Следы удалённых комментариев в {@code comment_tombstones}: по ним клиенты /changes узнают
+ * об удалениях. Хранятся {@link #RETENTION} (TTL-индекс на deletedAt).
+ */
+@Service
+@RequiredArgsConstructor
+public class CommentTombstoneService {
+
+    // совпадает с expireAfter TTL-индекса в CommentTombstone
+    public static final Duration RETENTION = Duration.ofDays(30);
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Записывает следы удалённых комментариев; нужны id, contentType и contentId.
+     */
+    public void record(Collection<Comment> removed) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<CommentTombstone> tombstones = removed.stream()
+                .map(c -> new CommentTombstone(c.getId(), c.getContentType(), c.getContentId(), now))
+                .toList();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CommentTombstone.class)
+                    .insert(tombstones)
+                    .execute();
+        } catch (BulkOperationException ex) {
+            // след уже записал параллельный delete того же комментария — это не ошибка
+            boolean onlyDuplicates = ex.getErrors().stream().allMatch(e -> e.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Следы ветки в порядке (deletedAt, _id) строго после ключа и не позже {@code upTo}.
+     */
+    public List<CommentTombstone> findSince(ContentType type, Long contentId, Instant afterDeletedAt,
+                                            ObjectId afterId, Instant upTo, int limit) {
+        // как у keyset-страниц комментариев: граница диапазона по deletedAt, хвост ключа — через $nor
+        Criteria criteria = Criteria.where("contentType").is(type).and("contentId").is(contentId)
+                .and("deletedAt").gte(afterDeletedAt).lte(upTo)
+                .norOperator(Criteria.where("deletedAt").is(afterDeletedAt).and("_id").lte(afterId));
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "deletedAt").and(Sort.by(Sort.Direction.ASC, "_id")))
+                .limit(limit);
+        query.fields().include("deletedAt");
+        return mongoTemplate.find(query, CommentTombstone.class);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.comment;
+
+import org.example.common.ContentVersion;
+import org.example.common.CursorPage;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * ETag / Last-Modified для комментариев.
+ */
+final class CommentVersions {
+
+    private CommentVersions() {
+    }
+
+    static ContentVersion of(Instant updatedAt) {
+        return new ContentVersion(String.valueOf(millis(updatedAt)), updatedAt);
+    }
+
+    /**
+     * ETag страницы ветки: хэш id и updatedAt комментариев страницы и курсора следующей.
+     * Last-Modified не отдаётся — удаление комментария не сдвигает максимальный updatedAt.
+     */
+    static ContentVersion ofPage(CursorPage<Comment> page) {
+        StringBuilder key = new StringBuilder();
+        for (Comment comment : page.items()) {
+            key.append(comment.getId()).append(':').append(millis(comment.getUpdatedAt())).append(';');
+        }
+        key.append(page.nextCursor());
+        return new ContentVersion(DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    private static long millis(Instant instant) {
+        return instant == null ? 0L : instant.toEpochMilli();
+    }
+}
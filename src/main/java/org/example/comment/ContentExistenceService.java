@@ -1,24 +1,109 @@
 package org.example.comment;
 
-import lombok.RequiredArgsConstructor;
 import org.example.article.ArticleRepository;
+import org.example.common.ContentCache;
 import org.example.video.VideoRepository;
 import org.example.podcast.PodcastRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Проверка существования контента перед записью комментария. Ответы кэшируются по типу контента:
+ * «есть» — на media.cache.existence.ttl, «нет» — в отдельном меньшем кэше на negative-ttl.
+ * Контроллеры контента сообщают о создании и удалении через {@link #created} / {@link #deleted}.
+ * Создание и удаление сдвигают поколение типа: ответ, прочитанный из базы до них, в кэше не остаётся.
+ */
 @Service
-@RequiredArgsConstructor
 public class ContentExistenceService {
 
     private final ArticleRepository articleRepository;
     private final VideoRepository videoRepository;
     private final PodcastRepository podcastRepository;
 
+    private final Map<ContentType, ContentCache<Boolean>> existing = new EnumMap<>(ContentType.class);
+    private final Map<ContentType, ContentCache<Boolean>> missing = new EnumMap<>(ContentType.class);
+    private final Map<ContentType, AtomicLong> generations = new EnumMap<>(ContentType.class);
+
+    public ContentExistenceService(ArticleRepository articleRepository,
+                                   VideoRepository videoRepository,
+                                   PodcastRepository podcastRepository,
+                                   @Value("${media.cache.existence.maximum-size:100000}") long maximumSize,
+                                   @Value("${media.cache.existence.ttl:10m}") Duration ttl,
+                                   @Value("${media.cache.existence.negative-maximum-size:10000}") long negativeMaximumSize,
+                                   @Value("${media.cache.existence.negative-ttl:1m}") Duration negativeTtl) {
+        this.articleRepository = articleRepository;
+        this.videoRepository = videoRepository;
+        this.podcastRepository = podcastRepository;
+        for (ContentType type : ContentType.values()) {
+            String name = "existence-" + type.name().toLowerCase();
+            existing.put(type, new ContentCache<>(name, maximumSize, ttl));
+            missing.put(type, new ContentCache<>(name + "-negative", negativeMaximumSize, negativeTtl));
+            generations.put(type, new AtomicLong());
+        }
+    }
+
     public boolean exists(ContentType type, Long contentId) {
-        return switch (type) {
+        if (existing.get(type).getIfPresent(contentId) != null) {
+            return true;
+        }
+        if (missing.get(type).getIfPresent(contentId) != null) {
+            return false;
+        }
+
+        AtomicLong generation = generations.get(type);
+        long loadedAt = generation.get();
+        boolean exists = switch (type) {
             case ARTICLE -> articleRepository.existsById(contentId);
             case VIDEO -> videoRepository.existsById(contentId);
             case PODCAST -> podcastRepository.existsById(contentId);
         };
+        ContentCache<Boolean> cache = (exists ? existing : missing).get(type);
+        cache.put(contentId, Boolean.TRUE);
+        // поколение сдвинулось — создание или удаление прошло после чтения из базы, и его invalidate
+        // мог опередить наш put
+        if (generation.get() != loadedAt) {
+            cache.invalidate(contentId);
+        }
+        return exists;
+    }
+
+    /**
+     * Какие из id есть в базе — одним запросом мимо кэша (для проверки сиротских комментариев).
+     */
+    public Set<Long> existingIds(ContentType type, Collection<Long> contentIds) {
+        List<Long> found = switch (type) {
+            case ARTICLE -> articleRepository.findExistingIds(contentIds);
+            case VIDEO -> videoRepository.findExistingIds(contentIds);
+            case PODCAST -> podcastRepository.findExistingIds(contentIds);
+        };
+        return new HashSet<>(found);
+    }
+
+    public void created(ContentType type, Collection<Long> contentIds) {
+        generations.get(type).incrementAndGet();
+        missing.get(type).invalidateAll(contentIds);
+        contentIds.forEach(id -> existing.get(type).put(id, Boolean.TRUE));
+    }
+
+    public void deleted(ContentType type, Collection<Long> contentIds) {
+        generations.get(type).incrementAndGet();
+        existing.get(type).invalidateAll(contentIds);
+    }
+
+    public List<ContentCache.Stats> stats() {
+        return Stream.of(ContentType.values())
+                .flatMap(type -> Stream.of(existing.get(type), missing.get(type)))
+                .map(ContentCache::stats)
+                .toList();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package org.example.comment.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class DeleteCommentsByAuthorRequest {
+
+    @Schema(example = "spammer42")
+    @NotBlank
+    private String username;
+
+    // вместе с комментариями убрать и ответы автора в чужих ветках
+    private boolean includeReplies = true;
+}
@@ -0,0 +1,28 @@
+package org.example.comment.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.comment.ContentType;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+public class DeleteCommentsByContentRequest {
+
+    @NotNull
+    private ContentType contentType;
+
+    @NotNull
+    private Long contentId;
+
+    @Schema(example = "2025-12-10T10:00:00Z")
+    @NotNull
+    private Instant from;
+
+    @Schema(example = "2025-12-10T11:00:00Z")
+    @NotNull
+    private Instant to;
+}
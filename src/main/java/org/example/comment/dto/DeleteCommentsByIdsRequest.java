@@ -0,0 +1,19 @@
+package org.example.comment.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class DeleteCommentsByIdsRequest {
+
+    @Schema(example = "[\"69395086bb0a867b74cd695c\"]")
+    @NotEmpty
+    @Size(max = 100000)
+    private List<String> ids;
+}
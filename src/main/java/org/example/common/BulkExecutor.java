@@ -0,0 +1,151 @@
+package org.example.common;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетные create/update/delete для контента. Каждый элемент валидируется отдельно и получает
+ * свой статус; валидные элементы пишутся одной транзакцией, где Hibernate группирует
+ * INSERT/UPDATE/DELETE в JDBC-батчи (hibernate.jdbc.batch_size).
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkExecutor {
+
+    public static final int MAX_ITEMS = 1000;
+
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+
+    public <T> BulkResult create(List<T> items,
+                                 JpaRepository<T, Long> repository,
+                                 Function<T, Long> idOf) {
+        checkSize(items);
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        Map<Integer, T> valid = new LinkedHashMap<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            Long id = item == null ? null : idOf.apply(item);
+            String error = id != null ? "id не должен передаваться при создании" : validate(item);
+            if (error != null) {
+                results[i] = BulkItemResult.failed(i, id, BulkItemResult.Status.INVALID, error);
+            } else {
+                valid.put(i, item);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            transaction().executeWithoutResult(status -> repository.saveAll(valid.values()));
+            valid.forEach((i, item) ->
+                    results[i] = BulkItemResult.ok(i, idOf.apply(item), BulkItemResult.Status.CREATED));
+        }
+        return BulkResult.of(Arrays.asList(results));
+    }
+
+    public <T> BulkResult update(List<T> items,
+                                 JpaRepository<T, Long> repository,
+                                 Function<T, Long> idOf,
+                                 BiConsumer<T, T> copy) {
+        checkSize(items);
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        Map<Integer, T> valid = new LinkedHashMap<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            Long id = item == null ? null : idOf.apply(item);
+            String error = item != null && id == null ? "id обязателен при обновлении" : validate(item);
+            if (error != null) {
+                results[i] = BulkItemResult.failed(i, id, BulkItemResult.Status.INVALID, error);
+            } else {
+                valid.put(i, item);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            transaction().executeWithoutResult(status -> {
+                Map<Long, T> existing = byId(repository.findAllById(ids(valid.values(), idOf)), idOf);
+                valid.forEach((i, item) -> {
+                    Long id = idOf.apply(item);
+                    T target = existing.get(id);
+                    if (target == null) {
+                        results[i] = BulkItemResult.failed(i, id, BulkItemResult.Status.NOT_FOUND, "Не найдено");
+                    } else {
+                        copy.accept(item, target);
+                        results[i] = BulkItemResult.ok(i, id, BulkItemResult.Status.UPDATED);
+                    }
+                });
+            });
+        }
+        return BulkResult.of(Arrays.asList(results));
+    }
+
+    public <T> BulkResult delete(List<Long> ids,
+                                 JpaRepository<T, Long> repository,
+                                 Function<T, Long> idOf) {
+        checkSize(ids);
+        Set<Long> found = transaction().execute(status -> {
+            List<T> existing = repository.findAllById(ids.stream().filter(Objects::nonNull).toList());
+            repository.deleteAll(existing);
+            return existing.stream().map(idOf).collect(Collectors.toSet());
+        });
+
+        List<BulkItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            results.add(found.contains(id)
+                    ? BulkItemResult.ok(i, id, BulkItemResult.Status.DELETED)
+                    : BulkItemResult.failed(i, id, BulkItemResult.Status.NOT_FOUND, "Не найдено"));
+        }
+        return BulkResult.of(results);
+    }
+
+    private void checkSize(List<?> items) {
+        if (items.size() > MAX_ITEMS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Слишком много элементов в пакете (максимум " + MAX_ITEMS + ")");
+        }
+    }
+
+    private <T> String validate(T item) {
+        if (item == null) {
+            return "Пустой элемент";
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private static <T> List<Long> ids(Collection<T> items, Function<T, Long> idOf) {
+        return items.stream().map(idOf).distinct().toList();
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> idOf) {
+        Map<Long, T> map = new HashMap<>();
+        for (T entity : entities) {
+            map.put(idOf.apply(entity), entity);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.common;
+
+/**
+ * Результат обработки одного элемента пакетной операции; {@code index} — позиция в запросе.
+ */
+public record BulkItemResult(int index, Long id, Status status, String error) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        INVALID,
+        NOT_FOUND
+    }
+
+    public boolean succeeded() {
+        return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+    }
+
+    static BulkItemResult ok(int index, Long id, Status status) {
+        return new BulkItemResult(index, id, status, null);
+    }
+
+    static BulkItemResult failed(int index, Long id, Status status, String error) {
+        return new BulkItemResult(index, id, status, error);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.common;
+
+import java.util.List;
+import java.util.Objects;
+
+public record BulkResult(int succeeded, int failed, List<BulkItemResult> items) {
+
+    public static BulkResult of(List<BulkItemResult> items) {
+        int succeeded = (int) items.stream().filter(BulkItemResult::succeeded).count();
+        return new BulkResult(succeeded, items.size() - succeeded, items);
+    }
+
+    /**
+     * Идентификаторы всех элементов, которые пакет затронул успешно.
+     */
+    public List<Long> affectedIds() {
+        return items.stream()
+                .filter(BulkItemResult::succeeded)
+                .map(BulkItemResult::id)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
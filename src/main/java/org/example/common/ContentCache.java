@@ -0,0 +1,77 @@
+package org.example.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Read-through кэш контента по id. Размер ограничен, вытеснение — W-TinyLFU (Caffeine),
+ * поэтому часто читаемые записи переживают всплески разовых обращений.
+ * Отсутствующие записи не кэшируются.
+ */
+public class ContentCache<T> {
+
+    private final String name;
+    private final Cache<Long, T> cache;
+
+    public ContentCache(String name, long maximumSize) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Кэш, записи которого дополнительно устаревают через {@code expireAfterWrite}.
+     */
+    public ContentCache(String name, long maximumSize, Duration expireAfterWrite) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public T get(Long id, Function<Long, T> loader) {
+        return cache.get(id, loader);
+    }
+
+    public T getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    public void put(Long id, T value) {
+        cache.put(id, value);
+    }
+
+    /**
+     * Проверка без учёта в статистике попаданий.
+     */
+    public boolean contains(Long id) {
+        return cache.policy().getIfPresentQuietly(id) != null;
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    public Stats stats() {
+        CacheStats stats = cache.stats();
+        return new Stats(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    public record Stats(String name, long size, long hitCount, long missCount,
+                        double hitRate, long evictionCount) {
+    }
+}
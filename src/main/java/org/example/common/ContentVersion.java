@@ -0,0 +1,33 @@
+package org.example.common;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+
+/**
+ * Валидаторы условного GET: значение strong ETag и (опционально) Last-Modified.
+ */
+public record ContentVersion(String tag, Instant updatedAt) {
+
+    public ContentVersion(Long version, Instant updatedAt) {
+        this(String.valueOf(version == null ? 0L : version), updatedAt);
+    }
+
+    public static ContentVersion of(Versioned entity) {
+        return new ContentVersion(entity.getVersion(), entity.getUpdatedAt());
+    }
+
+    public static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * Выставляет ETag / Last-Modified в ответ и возвращает {@code true}, если клиенту
+     * достаточно 304 Not Modified (статус уже установлен).
+     */
+    public boolean checkNotModified(WebRequest request) {
+        return request.checkNotModified(tag, updatedAt == null ? -1 : updatedAt.toEpochMilli());
+    }
+}
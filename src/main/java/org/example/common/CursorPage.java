@@ -0,0 +1,41 @@
+package org.example.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница keyset-выборки. {@code nextCursor == null} означает, что это последняя страница.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * Размер страницы: по умолчанию {@link #DEFAULT_LIMIT}, не больше {@link #MAX_LIMIT}.
+     */
+    public static int limit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (requested < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit должен быть положительным");
+        }
+        return Math.min(requested, MAX_LIMIT);
+    }
+
+    /**
+     * Собирает страницу из выборки размером до {@code limit + 1} строк: лишняя строка
+     * только сигнализирует, что дальше есть данные.
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, String> cursorOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = List.copyOf(fetched.subList(0, limit));
+        return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)));
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Непрозрачный курсор для keyset-пагинации: значения ключа последней строки страницы,
+ * упакованные в base64url. Клиент передаёт его обратно как есть.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Object... parts) {
+        String raw = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                throw invalid();
+            }
+            return parts;
+        } catch (IllegalArgumentException ex) {
+            throw invalid();
+        }
+    }
+
+    public static long decodeId(String cursor) {
+        try {
+            return Long.parseLong(decode(cursor, 1)[0]);
+        } catch (NumberFormatException ex) {
+            throw invalid();
+        }
+    }
+
+    public static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный курсор");
+    }
+}
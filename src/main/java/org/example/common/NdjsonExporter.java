@@ -0,0 +1,67 @@
+package org.example.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка сущностей в NDJSON: строки читаются курсором внутри read-only
+ * транзакции и отсоединяются от persistence context сразу после записи, поэтому
+ * потребление памяти не зависит от размера таблицы.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonExporter {
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    public <T> ResponseEntity<StreamingResponseBody> export(Supplier<Stream<T>> source) {
+        StreamingResponseBody body = out -> {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.setReadOnly(true);
+            tx.executeWithoutResult(status -> write(source, out));
+        };
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
+    }
+
+    private <T> void write(Supplier<Stream<T>> source, OutputStream out) {
+        try (Stream<T> stream = source.get()) {
+            Iterator<T> rows = stream.iterator();
+            int written = 0;
+            while (rows.hasNext()) {
+                T row = rows.next();
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+                entityManager.detach(row);
+                if (++written % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
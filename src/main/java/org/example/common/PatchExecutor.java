@@ -0,0 +1,47 @@
+package org.example.common;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Частичное обновление контента одним {@code UPDATE ... WHERE id = ?}: в SET попадают только
+ * переданные поля, плюс version и updatedAt (bulk-update обходит @Version и @UpdateTimestamp).
+ * Отсутствие строки определяется по числу затронутых строк, без предварительного SELECT.
+ */
+@Component
+@RequiredArgsConstructor
+public class PatchExecutor {
+
+    private final EntityManager entityManager;
+
+    @Transactional
+    public <T extends Versioned> void apply(Class<T> type, Long id, Map<String, Object> changes, String notFoundMessage) {
+        if (changes.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Нет полей для обновления");
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(type);
+        Root<T> root = update.from(type);
+
+        changes.forEach((field, value) -> update.set(root.get(field), value));
+        // литерал, а не параметр: параметр Hibernate приводит к columnDefinition ("bigint default 0")
+        update.set(root.<Long>get("version"), cb.sum(root.get("version"), cb.literal(1L)));
+        update.set(root.<Instant>get("updatedAt"), Instant.now());
+        update.where(cb.equal(root.get("id"), id));
+
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, notFoundMessage);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.common;
+
+import java.time.Instant;
+
+/**
+ * Сущность с номером версии и временем последнего изменения — источник ETag / Last-Modified.
+ */
+public interface Versioned {
+
+    Long getVersion();
+
+    Instant getUpdatedAt();
+}
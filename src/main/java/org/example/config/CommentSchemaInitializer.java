@@ -0,0 +1,107 @@
+package org.example.config;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.example.comment.Comment;
+import org.example.comment.CommentCount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Configuration
+@RequiredArgsConstructor
+public class CommentSchemaInitializer {
+
+    // индексы прежних версий схемы: префиксы idx_content_type_content_id_created_at_id /
+    // idx_author_created_at_id или индекс под сортировку, которой больше нет
+    private static final List<String> RETIRED_COMMENT_INDEXES = List.of(
+            "idx_comment_content_type",
+            "idx_comment_content_id",
+            "idx_comment_author",
+            // после перехода ветки на курсор (createdAt, _id) индекс оставался рядом с
+            // idx_content_type_content_id_created_at_id и обслуживался на каждой вставке
+            "idx_content_type_content_id_created_at",
+            "idx_content_type_content_id_updated_at");
+
+    @Bean
+    public CommandLineRunner dropRetiredCommentIndexes(MongoTemplate mongoTemplate) {
+        // каждый лишний индекс — лишняя запись на каждую вставку комментария
+        return args -> {
+            IndexOperations indexOps = mongoTemplate.indexOps(Comment.class);
+            Set<String> present = indexOps.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            RETIRED_COMMENT_INDEXES.stream()
+                    .filter(present::contains)
+                    .forEach(indexOps::dropIndex);
+        };
+    }
+
+    @Bean
+    public CommandLineRunner backfillReplyCounts(MongoTemplate mongoTemplate) {
+        // комментарии, созданные до появления replyCount: считаем $size на сервере одним updateMany
+        return args -> mongoTemplate.updateMulti(
+                Query.query(Criteria.where("replyCount").exists(false)),
+                AggregationUpdate.update()
+                        .set("replyCount")
+                        .toValue(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("replies").then(List.of()))),
+                Comment.class);
+    }
+
+    @Bean
+    public CommandLineRunner backfillCommentCounts(MongoTemplate mongoTemplate) {
+        // первый запуск со счётчиками: считаем их по comments одной агрегацией с $merge
+        return args -> {
+            if (mongoTemplate.estimatedCount(CommentCount.class) > 0) {
+                return;
+            }
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.group("contentType", "contentId").count().as("count"),
+                    Aggregation.project("contentType", "contentId", "count").andExclude("_id"),
+                    Aggregation.merge()
+                            .intoCollection("comment_counts")
+                            .on("contentType", "contentId")
+                            .whenMatched(MergeOperation.WhenDocumentsMatch.replaceDocument())
+                            .whenNotMatched(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                            .build());
+            mongoTemplate.aggregate(aggregation, Comment.class, Document.class);
+        };
+    }
+
+    @Bean
+    public CommandLineRunner ensureMetadataHotKeyIndexes(MongoTemplate mongoTemplate,
+                                                         @Value("${media.comments.metadata.hot-keys:}") List<String> hotKeys) {
+        // частые ключи поиска по metadata: составной индекс под ветку контента вместо общего wildcard
+        return args -> {
+            for (String key : hotKeys) {
+                if (!key.matches("[A-Za-z0-9_-]{1,64}")) {
+                    throw new IllegalStateException("Некорректный ключ media.comments.metadata.hot-keys: " + key);
+                }
+                mongoTemplate.indexOps(Comment.class).ensureIndex(new Index()
+                        .on("contentType", Sort.Direction.ASC)
+                        .on("contentId", Sort.Direction.ASC)
+                        .on("metadata." + key, Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .named("idx_comment_metadata_" + key));
+            }
+        };
+    }
+}
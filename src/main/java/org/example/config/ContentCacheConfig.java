@@ -0,0 +1,31 @@
+package org.example.config;
+
+import org.example.article.Article;
+import org.example.common.ContentCache;
+import org.example.podcast.Podcast;
+import org.example.video.Video;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ContentCacheConfig {
+
+    @Value("${media.cache.content.maximum-size:10000}")
+    private long maximumSize;
+
+    @Bean
+    public ContentCache<Article> articleCache() {
+        return new ContentCache<>("articles", maximumSize);
+    }
+
+    @Bean
+    public ContentCache<Video> videoCache() {
+        return new ContentCache<>("videos", maximumSize);
+    }
+
+    @Bean
+    public ContentCache<Podcast> podcastCache() {
+        return new ContentCache<>("podcasts", maximumSize);
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Configuration
+@RequiredArgsConstructor
+public class ContentSchemaInitializer {
+
+    private static final String MIGRATION_BEAN = "contentSchemaMigration";
+
+    /**
+     * Правки существующей схемы, которые должны закончиться до старта JPA: entityManagerFactory зависит
+     * от этого бина, поэтому ни один запрос не увидит схему посередине. На пустой базе ничего не делает —
+     * таблицы и sequence создаёт Hibernate (ddl-auto: update).
+     */
+    @Bean(MIGRATION_BEAN)
+    public InitializingBean contentSchemaMigration(DataSource dataSource) {
+        return () -> new ContentSchemaMigration(new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource))).run();
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor contentSchemaMigrationBeforeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor(MIGRATION_BEAN);
+    }
+
+    @Slf4j
+    @RequiredArgsConstructor
+    static class ContentSchemaMigration {
+
+        // pooled-генератор id: sequence и их выравнивание по строкам, созданным ещё через IDENTITY.
+        // Имена фиксированы, SQL не собирается из строк; INCREMENT BY — allocationSize сущностей
+        private static final List<SequenceAlignment> SEQUENCES = List.of(
+                new SequenceAlignment("articles",
+                        "CREATE SEQUENCE IF NOT EXISTS articles_seq START WITH 1 INCREMENT BY 50",
+                        "SELECT setval('articles_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM articles), "
+                                + "(SELECT last_value FROM articles_seq)))"),
+                new SequenceAlignment("videos",
+                        "CREATE SEQUENCE IF NOT EXISTS videos_seq START WITH 1 INCREMENT BY 50",
+                        "SELECT setval('videos_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM videos), "
+                                + "(SELECT last_value FROM videos_seq)))"),
+                new SequenceAlignment("podcasts",
+                        "CREATE SEQUENCE IF NOT EXISTS podcasts_seq START WITH 1 INCREMENT BY 50",
+                        "SELECT setval('podcasts_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM podcasts), "
+                                + "(SELECT last_value FROM podcasts_seq)))"));
+
+        // форматы дат, встречавшиеся в varchar-колонке published_at до перехода на date
+        private static final List<DateTimeFormatter> PUBLISHED_AT_FORMATS = List.of(
+                DateTimeFormatter.ofPattern("uuuu-MM-dd").withResolverStyle(ResolverStyle.STRICT),
+                DateTimeFormatter.ofPattern("dd.MM.uuuu").withResolverStyle(ResolverStyle.STRICT),
+                DateTimeFormatter.ofPattern("uuuu/MM/dd").withResolverStyle(ResolverStyle.STRICT));
+        private static final Pattern ISO_DATE_TIME = Pattern.compile("^(\\d{4}-\\d{2}-\\d{2})[T ].*");
+        private static final int BATCH_SIZE = 500;
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+
+        void run() {
+            alignContentSequences();
+            backfillEpisodePositions();
+            transactionTemplate.executeWithoutResult(status -> convertArticlePublishedAt());
+        }
+
+        /**
+         * ISO-дата, ISO-дата со временем, дд.мм.гггг или гггг/мм/дд; {@code null}, если формат не распознан
+         * или такой даты нет.
+         */
+        static LocalDate parsePublishedAt(String raw) {
+            if (raw == null) {
+                return null;
+            }
+            String value = raw.trim();
+            Matcher dateTime = ISO_DATE_TIME.matcher(value);
+            if (dateTime.matches()) {
+                value = dateTime.group(1);
+            }
+            for (DateTimeFormatter format : PUBLISHED_AT_FORMATS) {
+                try {
+                    return LocalDate.parse(value, format);
+                } catch (DateTimeParseException ex) {
+                    // пробуем следующий формат
+                }
+            }
+            return null;
+        }
+
+        private void alignContentSequences() {
+            for (SequenceAlignment sequence : SEQUENCES) {
+                if (!tableExists(sequence.table())) {
+                    continue;
+                }
+                jdbcTemplate.execute(sequence.create());
+                Long value = jdbcTemplate.queryForObject(sequence.align(), Long.class);
+                log.info("Sequence для {} выровнена: {}", sequence.table(), value);
+            }
+        }
+
+        // order column появляется здесь, а не через ddl-auto: колонка, позиции и ключ (podcast_id, position)
+        // готовы раньше, чем append (MAX(position) + 1) или сдвиги позиций увидят эпизоды с NULL
+        private void backfillEpisodePositions() {
+            if (!tableExists("podcast_episodes")) {
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE podcast_episodes ADD COLUMN IF NOT EXISTS position integer");
+            // эпизоды, сохранённые до появления order column, получают позиции в порядке вставки
+            int backfilled = jdbcTemplate.update(
+                    "UPDATE podcast_episodes e SET position = n.rn - 1 FROM ("
+                            + "SELECT ctid, row_number() OVER (PARTITION BY podcast_id ORDER BY ctid) AS rn "
+                            + "FROM podcast_episodes) n "
+                            + "WHERE e.ctid = n.ctid AND e.position IS NULL");
+            jdbcTemplate.execute("ALTER TABLE podcast_episodes ALTER COLUMN position SET NOT NULL");
+            Boolean hasPrimaryKey = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_constraint "
+                            + "WHERE conrelid = 'podcast_episodes'::regclass AND contype = 'p')",
+                    Boolean.class);
+            if (!Boolean.TRUE.equals(hasPrimaryKey)) {
+                jdbcTemplate.execute("ALTER TABLE podcast_episodes ADD PRIMARY KEY (podcast_id, position)");
+            }
+            if (backfilled > 0) {
+                log.info("Позиции проставлены {} эпизодам", backfilled);
+            }
+        }
+
+        // ddl-auto: update не меняет тип колонки. Значения переносятся в новую date-колонку в Java по известным
+        // форматам, исходная varchar-колонка остаётся как published_at_raw — ничего не теряется; одной
+        // транзакцией, до старта JPA
+        private void convertArticlePublishedAt() {
+            List<String> types = jdbcTemplate.queryForList(
+                    "SELECT data_type FROM information_schema.columns "
+                            + "WHERE table_name = 'articles' AND column_name = 'published_at'",
+                    String.class);
+            if (!types.contains("character varying")) {
+                return;
+            }
+
+            List<Object[]> converted = new ArrayList<>();
+            List<Long> unparsed = new ArrayList<>();
+            jdbcTemplate.query("SELECT id, published_at FROM articles WHERE published_at IS NOT NULL", rs -> {
+                LocalDate date = parsePublishedAt(rs.getString("published_at"));
+                if (date != null) {
+                    converted.add(new Object[]{date, rs.getLong("id")});
+                } else {
+                    unparsed.add(rs.getLong("id"));
+                }
+            });
+            if (!unparsed.isEmpty()) {
+                log.warn("published_at не распознан у {} статей (первые id: {}); исходные значения "
+                                + "сохранены в articles.published_at_raw",
+                        unparsed.size(), unparsed.subList(0, Math.min(20, unparsed.size())));
+            }
+
+            jdbcTemplate.execute("ALTER TABLE articles ADD COLUMN published_at_date date");
+            for (int from = 0; from < converted.size(); from += BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("UPDATE articles SET published_at_date = ? WHERE id = ?",
+                        converted.subList(from, Math.min(from + BATCH_SIZE, converted.size())));
+            }
+            // индекс по строковой колонке не нужен; по date-колонке его создаст Hibernate
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_articles_published_at");
+            jdbcTemplate.execute("ALTER TABLE articles RENAME COLUMN published_at TO published_at_raw");
+            jdbcTemplate.execute("ALTER TABLE articles RENAME COLUMN published_at_date TO published_at");
+            log.info("published_at переведён в date: {} значений, не распознано {}", converted.size(), unparsed.size());
+        }
+
+        private boolean tableExists(String table) {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+        }
+
+        private record SequenceAlignment(String table, String create, String align) {
+        }
+    }
+}
@@ -29,6 +29,12 @@ public class SecurityConfig {
 
                         .requestMatchers(HttpMethod.GET, "/api/session-demo/**").permitAll()
 
+                        .requestMatchers(HttpMethod.GET,
+                                "/api/articles/export",
+                                "/api/videos/export",
+                                "/api/podcasts/export"
+                        ).hasRole("ADMIN")
+
                          .requestMatchers(HttpMethod.GET,
                                 "/api/articles/**",
                                 "/api/videos/**",
@@ -37,6 +43,7 @@ public class SecurityConfig {
                         ).permitAll()
 
                         .requestMatchers("/api/users/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
                         .requestMatchers(HttpMethod.POST,
                                 "/api/articles/**",
@@ -48,6 +55,11 @@ public class SecurityConfig {
                                 "/api/videos/**",
                                 "/api/podcasts/**"
                         ).hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.PATCH,
+                                "/api/articles/**",
+                                "/api/videos/**",
+                                "/api/podcasts/**"
+                        ).hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE,
                                 "/api/articles/**",
                                 "/api/videos/**",
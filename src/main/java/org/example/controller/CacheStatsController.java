@@ -0,0 +1,30 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.example.comment.ContentExistenceService;
+import org.example.common.ContentCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/api/admin/cache-stats")
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final List<ContentCache<?>> caches;
+    private final ContentExistenceService contentExistenceService;
+
+    @GetMapping
+    @Operation(summary = "Статистика кэшей контента (ADMIN)")
+    public List<ContentCache.Stats> stats() {
+        return Stream.concat(
+                        caches.stream().map(ContentCache::stats),
+                        contentExistenceService.stats().stream())
+                .toList();
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.example.comment.CommentCascadeCleaner;
+import org.example.comment.ContentType;
+import org.example.common.CursorPage;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/comment-cleanup")
+@RequiredArgsConstructor
+public class CommentCleanupController {
+
+    private final CommentCascadeCleaner commentCascadeCleaner;
+
+    @GetMapping
+    @Operation(summary = "Очередь фонового удаления комментариев удалённого контента (ADMIN)")
+    public CommentCascadeCleaner.Stats stats() {
+        return commentCascadeCleaner.stats();
+    }
+
+    @PostMapping("/sweep")
+    @Operation(summary = "Шаг поиска сиротских комментариев: найденные ставятся в очередь на удаление (ADMIN)")
+    public CommentCascadeCleaner.SweepResult sweep(@RequestParam("type") ContentType type,
+                                                   @RequestParam(required = false) String after,
+                                                   @RequestParam(required = false) Integer limit) {
+        return commentCascadeCleaner.sweep(type, after, CursorPage.limit(limit));
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.example.comment.CommentIngestionBuffer;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/comment-ingestion")
+@RequiredArgsConstructor
+public class CommentIngestionStatsController {
+
+    private final CommentIngestionBuffer commentIngestionBuffer;
+
+    @GetMapping
+    @Operation(summary = "Состояние буфера пакетной записи комментариев (ADMIN)")
+    public CommentIngestionBuffer.Stats stats() {
+        return commentIngestionBuffer.stats();
+    }
+}
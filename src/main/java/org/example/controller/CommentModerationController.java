@@ -0,0 +1,59 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.comment.CommentModerationService;
+import org.example.comment.dto.DeleteCommentsByAuthorRequest;
+import org.example.comment.dto.DeleteCommentsByContentRequest;
+import org.example.comment.dto.DeleteCommentsByIdsRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/admin/comment-moderation")
+@RequiredArgsConstructor
+public class CommentModerationController {
+
+    private final CommentModerationService commentModerationService;
+
+    @PostMapping("/delete-by-ids")
+    @Operation(summary = "Удалить комментарии по списку id (ADMIN)")
+    public ResponseEntity<CommentModerationService.Progress> deleteByIds(
+            @Valid @RequestBody DeleteCommentsByIdsRequest request) {
+        return ResponseEntity.accepted().body(commentModerationService.deleteByIds(request.getIds()));
+    }
+
+    @PostMapping("/delete-by-author")
+    @Operation(summary = "Удалить комментарии и ответы автора (ADMIN)")
+    public ResponseEntity<CommentModerationService.Progress> deleteByAuthor(
+            @Valid @RequestBody DeleteCommentsByAuthorRequest request) {
+        return ResponseEntity.accepted().body(
+                commentModerationService.deleteByAuthor(request.getUsername(), request.isIncludeReplies()));
+    }
+
+    @PostMapping("/delete-by-content")
+    @Operation(summary = "Удалить комментарии к контенту за интервал [from, to) (ADMIN)")
+    public ResponseEntity<CommentModerationService.Progress> deleteByContent(
+            @Valid @RequestBody DeleteCommentsByContentRequest request) {
+        if (!request.getFrom().isBefore(request.getTo())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from должен быть раньше to");
+        }
+        return ResponseEntity.accepted().body(commentModerationService.deleteByContent(
+                request.getContentType(), request.getContentId(), request.getFrom(), request.getTo()));
+    }
+
+    @GetMapping("/jobs/{id}")
+    @Operation(summary = "Прогресс задачи модерации (ADMIN)")
+    public CommentModerationService.Progress progress(@PathVariable String id) {
+        return commentModerationService.progress(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Moderation job not found"));
+    }
+}
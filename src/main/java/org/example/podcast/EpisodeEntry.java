@@ -0,0 +1,7 @@
+package org.example.podcast;
+
+/**
+ * Эпизод вместе с его позицией в списке подкаста (order column {@code position}).
+ */
+public record EpisodeEntry(Integer position, String title) {
+}
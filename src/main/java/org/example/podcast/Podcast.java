@@ -1,18 +1,25 @@
 package org.example.podcast;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.example.common.CursorPage;
+import org.example.common.Versioned;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "podcasts")
-public class Podcast {
+public class Podcast implements Versioned {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "podcasts_seq")
+    @SequenceGenerator(name = "podcasts_seq", sequenceName = "podcasts_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Заголовок подкаста не должен быть пустым")
@@ -23,14 +30,25 @@ public class Podcast {
     @Size(max = 500, message = "URL аудио не должен превышать 500 символов")
     private String audioUrl;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @BatchSize(size = CursorPage.MAX_LIMIT)
     @CollectionTable(name = "podcast_episodes", joinColumns = @JoinColumn(name = "podcast_id"))
+    @OrderColumn(name = "position")
     @Column(name = "episode")
     private List<
             @NotBlank(message = "Название эпизода не должно быть пустым")
             @Size(max = 500, message = "Название эпизода не должно превышать 500 символов")
                     String> episodes = new ArrayList<>();
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @UpdateTimestamp
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant updatedAt;
+
     public Podcast() {
     }
 
@@ -66,4 +84,22 @@ public class Podcast {
     public void setEpisodes(List<String> episodes) {
         this.episodes = episodes;
     }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
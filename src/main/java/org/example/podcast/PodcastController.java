@@ -4,9 +4,27 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.comment.CommentCascadeCleaner;
+import org.example.comment.ContentExistenceService;
+import org.example.comment.ContentType;
+import org.example.common.BulkExecutor;
+import org.example.common.BulkResult;
+import org.example.common.ContentCache;
+import org.example.common.ContentVersion;
+import org.example.common.CursorPage;
+import org.example.common.KeysetCursor;
+import org.example.common.NdjsonExporter;
+import org.example.common.PatchExecutor;
+import org.example.podcast.dto.AppendEpisodeRequest;
+import org.example.podcast.dto.PodcastPatchRequest;
+import org.example.podcast.dto.ReorderEpisodeRequest;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,24 +35,94 @@ import java.util.List;
 public class PodcastController {
 
     private final PodcastRepository podcastRepository;
+    private final NdjsonExporter ndjsonExporter;
+    private final ContentCache<Podcast> podcastCache;
+    private final BulkExecutor bulkExecutor;
+    private final PatchExecutor patchExecutor;
+    private final ContentExistenceService contentExistenceService;
+    private final CommentCascadeCleaner commentCascadeCleaner;
+    private final PodcastEpisodeService podcastEpisodeService;
 
     @GetMapping
-    @Operation(summary = "Получить список всех подкастов")
-    public List<Podcast> getAll() {
-        return podcastRepository.findAll();
+    @Operation(summary = "Получить страницу подкастов")
+    public CursorPage<Podcast> getAll(@RequestParam(required = false) String after,
+                                      @RequestParam(required = false) Integer limit) {
+        int pageSize = CursorPage.limit(limit);
+        long afterId = after == null ? 0L : KeysetCursor.decodeId(after);
+        List<Podcast> rows = podcastRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, p -> KeysetCursor.encode(p.getId()));
+    }
+
+    @GetMapping(params = "view=summary")
+    @Operation(summary = "Получить страницу подкастов без эпизодов")
+    public CursorPage<PodcastSummary> getSummaries(@RequestParam(required = false) String after,
+                                                   @RequestParam(required = false) Integer limit) {
+        int pageSize = CursorPage.limit(limit);
+        long afterId = after == null ? 0L : KeysetCursor.decodeId(after);
+        List<PodcastSummary> rows = podcastRepository.findSummariesByIdGreaterThan(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, s -> KeysetCursor.encode(s.id()));
+    }
+
+    @GetMapping(value = "/export", produces = NdjsonExporter.NDJSON_VALUE)
+    @Operation(summary = "Выгрузить все подкасты в формате NDJSON")
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ndjsonExporter.export(podcastRepository::streamAllByOrderByIdAsc);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Получить подкаст по идентификатору")
-    public Podcast getById(@PathVariable Long id) {
-        return podcastRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Podcast not found"));
+    public Podcast getById(@PathVariable Long id, WebRequest request) {
+        if (!podcastCache.contains(id) && ContentVersion.isConditional(request)) {
+            ContentVersion version = podcastRepository.findVersionById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Podcast not found"));
+            if (version.checkNotModified(request)) {
+                return null;
+            }
+        }
+        Podcast podcast = podcastCache.get(id, key -> podcastRepository.findWithEpisodesById(key).orElse(null));
+        if (podcast == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Podcast not found");
+        }
+        return ContentVersion.of(podcast).checkNotModified(request) ? null : podcast;
+    }
+
+    @GetMapping("/{id}/episodes")
+    @Operation(summary = "Получить страницу эпизодов подкаста")
+    public CursorPage<EpisodeEntry> getEpisodes(@PathVariable Long id,
+                                                @RequestParam(required = false) String after,
+                                                @RequestParam(required = false) Integer limit) {
+        return podcastEpisodeService.page(id, after, limit);
+    }
+
+    @PostMapping("/{id}/episodes")
+    @Operation(summary = "Добавить эпизод в конец списка")
+    public EpisodeEntry appendEpisode(@PathVariable Long id, @Valid @RequestBody AppendEpisodeRequest request) {
+        EpisodeEntry entry = podcastEpisodeService.append(id, request.getTitle());
+        podcastCache.invalidate(id);
+        return entry;
+    }
+
+    @DeleteMapping("/{id}/episodes/{position}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Удалить эпизод по позиции")
+    public void removeEpisode(@PathVariable Long id, @PathVariable int position) {
+        podcastEpisodeService.remove(id, position);
+        podcastCache.invalidate(id);
+    }
+
+    @PostMapping("/{id}/episodes/reorder")
+    @Operation(summary = "Переместить эпизод на другую позицию")
+    public void reorderEpisode(@PathVariable Long id, @Valid @RequestBody ReorderEpisodeRequest request) {
+        podcastEpisodeService.reorder(id, request.getFrom(), request.getTo());
+        podcastCache.invalidate(id);
     }
 
     @PostMapping
     @Operation(summary = "Создать новый подкаст")
     public Podcast create(@Valid @RequestBody Podcast podcast) {
-        return podcastRepository.save(podcast);
+        Podcast saved = podcastRepository.save(podcast);
+        contentExistenceService.created(ContentType.PODCAST, List.of(saved.getId()));
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -43,11 +131,19 @@ public class PodcastController {
         Podcast podcast = podcastRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Podcast not found"));
 
-        podcast.setTitle(request.getTitle());
-        podcast.setAudioUrl(request.getAudioUrl());
-        podcast.setEpisodes(request.getEpisodes());
+        copy(request, podcast);
 
-        return podcastRepository.save(podcast);
+        Podcast saved = podcastRepository.save(podcast);
+        podcastCache.invalidate(id);
+        return saved;
+    }
+
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Частично обновить подкаст")
+    public void patch(@PathVariable Long id, @Valid @RequestBody PodcastPatchRequest request) {
+        patchExecutor.apply(Podcast.class, id, request.changes(), "Podcast not found");
+        podcastCache.invalidate(id);
     }
 
     @DeleteMapping("/{id}")
@@ -58,5 +154,44 @@ public class PodcastController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Podcast not found");
         }
         podcastRepository.deleteById(id);
+        podcastCache.invalidate(id);
+        contentExistenceService.deleted(ContentType.PODCAST, List.of(id));
+        commentCascadeCleaner.contentDeleted(ContentType.PODCAST, List.of(id));
+    }
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Пакетное создание подкастов")
+    public BulkResult createBulk(@RequestBody List<Podcast> items) {
+        BulkResult result = bulkExecutor.create(items, podcastRepository, Podcast::getId);
+        contentExistenceService.created(ContentType.PODCAST, result.affectedIds());
+        return result;
+    }
+
+    @PutMapping("/bulk")
+    @Operation(summary = "Пакетное обновление подкастов")
+    public BulkResult updateBulk(@RequestBody List<Podcast> items) {
+        BulkResult result = bulkExecutor.update(items, podcastRepository, Podcast::getId, PodcastController::copy);
+        podcastCache.invalidateAll(result.affectedIds());
+        return result;
+    }
+
+    @DeleteMapping("/bulk")
+    @Operation(summary = "Пакетное удаление подкастов")
+    public BulkResult deleteBulk(@RequestBody List<Long> ids) {
+        BulkResult result = bulkExecutor.delete(ids, podcastRepository, Podcast::getId);
+        podcastCache.invalidateAll(result.affectedIds());
+        contentExistenceService.deleted(ContentType.PODCAST, result.affectedIds());
+        commentCascadeCleaner.contentDeleted(ContentType.PODCAST, result.affectedIds());
+        return result;
+    }
+
+    private static void copy(Podcast source, Podcast target) {
+        target.setTitle(source.getTitle());
+        target.setAudioUrl(source.getAudioUrl());
+        // коллекцию правим на месте: подмена списка заставляет Hibernate пересоздать все строки
+        target.getEpisodes().clear();
+        if (source.getEpisodes() != null) {
+            target.getEpisodes().addAll(source.getEpisodes());
+        }
     }
 }
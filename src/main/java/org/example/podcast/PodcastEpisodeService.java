@@ -0,0 +1,145 @@
+package org.example.podcast;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.example.common.CursorPage;
+import org.example.common.KeysetCursor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Операции над эпизодами, которые трогают только затронутые строки {@code podcast_episodes}
+ * вместо пересохранения всей коллекции.
+ *
+ * <p>Сдвиг позиций делается в два шага через отрицательные значения, чтобы не нарушать
+ * первичный ключ (podcast_id, position) посреди UPDATE.
+ */
+@Service
+@RequiredArgsConstructor
+public class PodcastEpisodeService {
+
+    private final EntityManager entityManager;
+    private final PodcastRepository podcastRepository;
+
+    @Transactional(readOnly = true)
+    public CursorPage<EpisodeEntry> page(Long podcastId, String after, Integer limit) {
+        int pageSize = CursorPage.limit(limit);
+        long afterPosition = after == null ? -1 : KeysetCursor.decodeId(after);
+
+        List<EpisodeEntry> rows = entityManager.createQuery(
+                        "select new org.example.podcast.EpisodeEntry(index(e), e) "
+                                + "from Podcast p join p.episodes e "
+                                + "where p.id = :id and index(e) > :after order by index(e)", EpisodeEntry.class)
+                .setParameter("id", podcastId)
+                .setParameter("after", (int) afterPosition)
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+
+        if (rows.isEmpty() && !podcastRepository.existsById(podcastId)) {
+            throw notFound("Podcast not found");
+        }
+        return CursorPage.of(rows, pageSize, e -> KeysetCursor.encode(e.position()));
+    }
+
+    @Transactional
+    public EpisodeEntry append(Long podcastId, String title) {
+        touch(podcastId);
+
+        Integer position = (Integer) entityManager.createNativeQuery(
+                        "SELECT COALESCE(MAX(position) + 1, 0) FROM podcast_episodes WHERE podcast_id = :id",
+                        Integer.class)
+                .setParameter("id", podcastId)
+                .getSingleResult();
+
+        entityManager.createNativeQuery(
+                        "INSERT INTO podcast_episodes (podcast_id, position, episode) VALUES (:id, :position, :title)")
+                .setParameter("id", podcastId)
+                .setParameter("position", position)
+                .setParameter("title", title)
+                .executeUpdate();
+
+        return new EpisodeEntry(position, title);
+    }
+
+    @Transactional
+    public void remove(Long podcastId, int position) {
+        touch(podcastId);
+
+        int deleted = entityManager.createNativeQuery(
+                        "DELETE FROM podcast_episodes WHERE podcast_id = :id AND position = :position")
+                .setParameter("id", podcastId)
+                .setParameter("position", position)
+                .executeUpdate();
+        if (deleted == 0) {
+            throw notFound("Episode not found");
+        }
+
+        // хвост сдвигается на одну позицию влево: p -> -p-1 -> p-1
+        entityManager.createNativeQuery(
+                        "UPDATE podcast_episodes SET position = -position - 1 "
+                                + "WHERE podcast_id = :id AND position > :position")
+                .setParameter("id", podcastId)
+                .setParameter("position", position)
+                .executeUpdate();
+        entityManager.createNativeQuery(
+                        "UPDATE podcast_episodes SET position = -position - 2 WHERE podcast_id = :id AND position < 0")
+                .setParameter("id", podcastId)
+                .executeUpdate();
+    }
+
+    @Transactional
+    public void reorder(Long podcastId, int from, int to) {
+        touch(podcastId);
+        if (from == to) {
+            return;
+        }
+        int low = Math.min(from, to);
+        int high = Math.max(from, to);
+
+        int marked = entityManager.createNativeQuery(
+                        "UPDATE podcast_episodes SET position = -position - 1 "
+                                + "WHERE podcast_id = :id AND position BETWEEN :low AND :high")
+                .setParameter("id", podcastId)
+                .setParameter("low", low)
+                .setParameter("high", high)
+                .executeUpdate();
+        if (marked != high - low + 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Позиция эпизода вне диапазона");
+        }
+
+        // перемещаемый эпизод встаёт на to, остальные в диапазоне сдвигаются на одну позицию
+        entityManager.createNativeQuery(
+                        "UPDATE podcast_episodes SET position = CASE WHEN position = :moved THEN :to "
+                                + "ELSE -position - 1 + :delta END "
+                                + "WHERE podcast_id = :id AND position < 0")
+                .setParameter("id", podcastId)
+                .setParameter("moved", -from - 1)
+                .setParameter("to", to)
+                .setParameter("delta", from < to ? -1 : 1)
+                .executeUpdate();
+    }
+
+    /**
+     * Поднимает версию подкаста (ETag меняется вместе с эпизодами) и заодно блокирует его строку,
+     * так что параллельные изменения эпизодов одного подкаста выполняются по очереди.
+     */
+    private void touch(Long podcastId) {
+        int updated = entityManager.createQuery(
+                        "update Podcast p set p.version = p.version + 1, p.updatedAt = :now where p.id = :id")
+                .setParameter("now", Instant.now())
+                .setParameter("id", podcastId)
+                .executeUpdate();
+        if (updated == 0) {
+            throw notFound("Podcast not found");
+        }
+    }
+
+    private static ResponseStatusException notFound(String message) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+    }
+}
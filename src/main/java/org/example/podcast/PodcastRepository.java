@@ -1,6 +1,43 @@
 package org.example.podcast;
 
+import jakarta.persistence.QueryHint;
+import org.example.common.ContentVersion;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface PodcastRepository extends JpaRepository<Podcast, Long> {
+
+    List<Podcast> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select new org.example.podcast.PodcastSummary(p.id, p.title, p.audioUrl) "
+            + "from Podcast p where p.id > :id order by p.id")
+    List<PodcastSummary> findSummariesByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    @Query("select new org.example.common.ContentVersion(p.version, p.updatedAt) from Podcast p where p.id = :id")
+    Optional<ContentVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select p.id from Podcast p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "episodes")
+    Optional<Podcast> findWithEpisodesById(Long id);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Podcast p left join fetch p.episodes order by p.id")
+    Stream<Podcast> streamAllByOrderByIdAsc();
 }
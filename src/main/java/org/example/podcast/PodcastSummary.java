@@ -0,0 +1,7 @@
+package org.example.podcast;
+
+/**
+ * Строка списка подкастов без коллекции эпизодов.
+ */
+public record PodcastSummary(Long id, String title, String audioUrl) {
+}
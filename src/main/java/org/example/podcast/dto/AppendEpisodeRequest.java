@@ -0,0 +1,17 @@
+package org.example.podcast.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class AppendEpisodeRequest {
+
+    @Schema(example = "Эпизод 3")
+    @NotBlank(message = "Название эпизода не должно быть пустым")
+    @Size(max = 500, message = "Название эпизода не должно превышать 500 символов")
+    private String title;
+}
@@ -0,0 +1,37 @@
+package org.example.podcast.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Частичное обновление подкаста: null означает «не менять». Эпизоды меняются
+ * через /api/podcasts/{id}/episodes.
+ */
+@Getter
+@Setter
+public class PodcastPatchRequest {
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Заголовок подкаста не должен быть пустым")
+    @Size(max = 255, message = "Заголовок не должен превышать 255 символов")
+    private String title;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "URL аудио не должен быть пустым")
+    @Size(max = 500, message = "URL аудио не должен превышать 500 символов")
+    private String audioUrl;
+
+    public Map<String, Object> changes() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (title != null) {
+            changes.put("title", title);
+        }
+        if (audioUrl != null) {
+            changes.put("audioUrl", audioUrl);
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.podcast.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReorderEpisodeRequest {
+
+    @Schema(example = "5")
+    @NotNull
+    @Min(0)
+    private Integer from;
+
+    @Schema(example = "0")
+    @NotNull
+    @Min(0)
+    private Integer to;
+}
@@ -1,16 +1,22 @@
 package org.example.video;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.example.common.Versioned;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
 @Table(name = "videos")
-public class Video {
+public class Video implements Versioned {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "videos_seq")
+    @SequenceGenerator(name = "videos_seq", sequenceName = "videos_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Заголовок видео не должен быть пустым")
@@ -24,6 +30,15 @@ public class Video {
     @Min(value = 1, message = "Длительность должна быть положительным числом секунд")
     private Integer duration; // в секундах
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @UpdateTimestamp
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant updatedAt;
+
     public Video() {
     }
 
@@ -59,4 +74,22 @@ public class Video {
     public void setDuration(Integer duration) {
         this.duration = duration;
     }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
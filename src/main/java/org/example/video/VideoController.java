@@ -4,9 +4,25 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.video.dto.VideoPatchRequest;
+import org.example.comment.CommentCascadeCleaner;
+import org.example.comment.ContentExistenceService;
+import org.example.comment.ContentType;
+import org.example.common.BulkExecutor;
+import org.example.common.BulkResult;
+import org.example.common.ContentCache;
+import org.example.common.ContentVersion;
+import org.example.common.CursorPage;
+import org.example.common.KeysetCursor;
+import org.example.common.NdjsonExporter;
+import org.example.common.PatchExecutor;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,24 +33,62 @@ import java.util.List;
 public class VideoController {
 
     private final VideoRepository videoRepository;
+    private final NdjsonExporter ndjsonExporter;
+    private final ContentCache<Video> videoCache;
+    private final BulkExecutor bulkExecutor;
+    private final PatchExecutor patchExecutor;
+    private final ContentExistenceService contentExistenceService;
+    private final CommentCascadeCleaner commentCascadeCleaner;
 
     @GetMapping
-    @Operation(summary = "Получить список всех видео")
-    public List<Video> getAll() {
-        return videoRepository.findAll();
+    @Operation(summary = "Получить страницу видео")
+    public CursorPage<Video> getAll(@RequestParam(required = false) String after,
+                                    @RequestParam(required = false) Integer limit) {
+        int pageSize = CursorPage.limit(limit);
+        long afterId = after == null ? 0L : KeysetCursor.decodeId(after);
+        List<Video> rows = videoRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, v -> KeysetCursor.encode(v.getId()));
+    }
+
+    @GetMapping(params = "view=summary")
+    @Operation(summary = "Получить страницу видео в кратком виде")
+    public CursorPage<VideoSummary> getSummaries(@RequestParam(required = false) String after,
+                                                 @RequestParam(required = false) Integer limit) {
+        int pageSize = CursorPage.limit(limit);
+        long afterId = after == null ? 0L : KeysetCursor.decodeId(after);
+        List<VideoSummary> rows = videoRepository.findSummariesByIdGreaterThan(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, s -> KeysetCursor.encode(s.id()));
+    }
+
+    @GetMapping(value = "/export", produces = NdjsonExporter.NDJSON_VALUE)
+    @Operation(summary = "Выгрузить все видео в формате NDJSON")
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ndjsonExporter.export(videoRepository::streamAllByOrderByIdAsc);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Получить видео по идентификатору")
-    public Video getById(@PathVariable Long id) {
-        return videoRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found"));
+    public Video getById(@PathVariable Long id, WebRequest request) {
+        if (!videoCache.contains(id) && ContentVersion.isConditional(request)) {
+            ContentVersion version = videoRepository.findVersionById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found"));
+            if (version.checkNotModified(request)) {
+                return null;
+            }
+        }
+        Video video = videoCache.get(id, key -> videoRepository.findById(key).orElse(null));
+        if (video == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found");
+        }
+        return ContentVersion.of(video).checkNotModified(request) ? null : video;
     }
 
     @PostMapping
     @Operation(summary = "Создать новое видео")
     public Video create(@Valid @RequestBody Video video) {
-        return videoRepository.save(video);
+        Video saved = videoRepository.save(video);
+        contentExistenceService.created(ContentType.VIDEO, List.of(saved.getId()));
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -43,11 +97,19 @@ public class VideoController {
         Video video = videoRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found"));
 
-        video.setTitle(request.getTitle());
-        video.setUrl(request.getUrl());
-        video.setDuration(request.getDuration());
+        copy(request, video);
 
-        return videoRepository.save(video);
+        Video saved = videoRepository.save(video);
+        videoCache.invalidate(id);
+        return saved;
+    }
+
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Частично обновить видео")
+    public void patch(@PathVariable Long id, @Valid @RequestBody VideoPatchRequest request) {
+        patchExecutor.apply(Video.class, id, request.changes(), "Video not found");
+        videoCache.invalidate(id);
     }
 
     @DeleteMapping("/{id}")
@@ -58,5 +120,40 @@ public class VideoController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found");
         }
         videoRepository.deleteById(id);
+        videoCache.invalidate(id);
+        contentExistenceService.deleted(ContentType.VIDEO, List.of(id));
+        commentCascadeCleaner.contentDeleted(ContentType.VIDEO, List.of(id));
+    }
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Пакетное создание видео")
+    public BulkResult createBulk(@RequestBody List<Video> items) {
+        BulkResult result = bulkExecutor.create(items, videoRepository, Video::getId);
+        contentExistenceService.created(ContentType.VIDEO, result.affectedIds());
+        return result;
+    }
+
+    @PutMapping("/bulk")
+    @Operation(summary = "Пакетное обновление видео")
+    public BulkResult updateBulk(@RequestBody List<Video> items) {
+        BulkResult result = bulkExecutor.update(items, videoRepository, Video::getId, VideoController::copy);
+        videoCache.invalidateAll(result.affectedIds());
+        return result;
+    }
+
+    @DeleteMapping("/bulk")
+    @Operation(summary = "Пакетное удаление видео")
+    public BulkResult deleteBulk(@RequestBody List<Long> ids) {
+        BulkResult result = bulkExecutor.delete(ids, videoRepository, Video::getId);
+        videoCache.invalidateAll(result.affectedIds());
+        contentExistenceService.deleted(ContentType.VIDEO, result.affectedIds());
+        commentCascadeCleaner.contentDeleted(ContentType.VIDEO, result.affectedIds());
+        return result;
+    }
+
+    private static void copy(Video source, Video target) {
+        target.setTitle(source.getTitle());
+        target.setUrl(source.getUrl());
+        target.setDuration(source.getDuration());
     }
 }
@@ -1,6 +1,38 @@
 package org.example.video;
 
+import jakarta.persistence.QueryHint;
+import org.example.common.ContentVersion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface VideoRepository extends JpaRepository<Video, Long> {
+
+    List<Video> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select new org.example.video.VideoSummary(v.id, v.title, v.url, v.duration) "
+            + "from Video v where v.id > :id order by v.id")
+    List<VideoSummary> findSummariesByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    @Query("select new org.example.common.ContentVersion(v.version, v.updatedAt) from Video v where v.id = :id")
+    Optional<ContentVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select v.id from Video v where v.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Video> streamAllByOrderByIdAsc();
 }
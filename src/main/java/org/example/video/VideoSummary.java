@@ -0,0 +1,7 @@
+package org.example.video;
+
+/**
+ * Строка списка видео: ссылка на файл короткая и нужна плееру в списке, служебных полей нет.
+ */
+public record VideoSummary(Long id, String title, String url, Integer duration) {
+}
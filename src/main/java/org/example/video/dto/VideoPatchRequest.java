@@ -0,0 +1,43 @@
+package org.example.video.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Частичное обновление видео: null означает «не менять».
+ */
+@Getter
+@Setter
+public class VideoPatchRequest {
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Заголовок видео не должен быть пустым")
+    @Size(max = 255, message = "Заголовок не должен превышать 255 символов")
+    private String title;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "URL видео не должен быть пустым")
+    @Size(max = 500, message = "URL не должен превышать 500 символов")
+    private String url;
+
+    @Min(value = 1, message = "Длительность должна быть положительным числом секунд")
+    private Integer duration;
+
+    public Map<String, Object> changes() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (title != null) {
+            changes.put("title", title);
+        }
+        if (url != null) {
+            changes.put("url", url);
+        }
+        if (duration != null) {
+            changes.put("duration", duration);
+        }
+        return changes;
+    }
+}
@@ -1,14 +1,36 @@
 package org.example.article;
 
+import org.example.article.dto.ArticlePatchRequest;
+import org.example.comment.CommentCascadeCleaner;
+import org.example.comment.ContentExistenceService;
+import org.example.common.BulkExecutor;
+import org.example.common.BulkItemResult;
+import org.example.common.BulkResult;
+import org.example.common.ContentCache;
+import org.example.common.ContentVersion;
+import org.example.common.CursorPage;
+import org.example.common.NdjsonExporter;
+import org.example.common.PatchExecutor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -21,6 +43,24 @@ class ArticleControllerTest {
     @Mock
     private ArticleRepository articleRepository;
 
+    @Mock
+    private NdjsonExporter ndjsonExporter;
+
+    @Mock
+    private BulkExecutor bulkExecutor;
+
+    @Mock
+    private PatchExecutor patchExecutor;
+
+    @Mock
+    private ContentExistenceService contentExistenceService;
+
+    @Mock
+    private CommentCascadeCleaner commentCascadeCleaner;
+
+    @Spy
+    private ContentCache<Article> articleCache = new ContentCache<>("articles", 100);
+
     @InjectMocks
     private ArticleController articleController;
 
@@ -31,15 +71,128 @@ class ArticleControllerTest {
         a1.setTitle("A1");
         a1.setText("T1");
         a1.setAuthor("Alex");
-        a1.setPublishedAt(LocalDate.now().toString());
+        a1.setPublishedAt(LocalDate.now());
+
+        when(articleRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1)))
+                .thenReturn(List.of(a1));
+
+        CursorPage<Article> result = articleController.getAll(null, null, null, null, null);
 
-        when(articleRepository.findAll()).thenReturn(List.of(a1));
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.items().get(0).getTitle()).isEqualTo("A1");
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void getAll_whenMoreRows_returnsNextCursorAndContinuesAfterIt() {
+        Article a1 = new Article();
+        a1.setId(1L);
+        Article a2 = new Article();
+        a2.setId(2L);
+        Article a3 = new Article();
+        a3.setId(3L);
+
+        when(articleRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                .thenReturn(List.of(a1, a2, a3));
+
+        CursorPage<Article> first = articleController.getAll(null, 2, null, null, null);
 
-        List<Article> result = articleController.getAll();
+        assertThat(first.items()).extracting(Article::getId).containsExactly(1L, 2L);
+        assertThat(first.nextCursor()).isNotNull();
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getTitle()).isEqualTo("A1");
-        verify(articleRepository).findAll();
+        when(articleRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3)))
+                .thenReturn(List.of(a3));
+
+        CursorPage<Article> second = articleController.getAll(first.nextCursor(), 2, null, null, null);
+
+        assertThat(second.items()).extracting(Article::getId).containsExactly(3L);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void getAll_limitAboveMax_isCapped() {
+        when(articleRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(CursorPage.MAX_LIMIT + 1)))
+                .thenReturn(List.of());
+
+        CursorPage<Article> result = articleController.getAll(null, 10_000, null, null, null);
+
+        assertThat(result.items()).isEmpty();
+    }
+
+    @Test
+    void getAll_withDateRange_usesPublishedAtKeyset() {
+        Article a1 = new Article();
+        a1.setId(7L);
+        a1.setPublishedAt(LocalDate.of(2025, 12, 9));
+        Article a2 = new Article();
+        a2.setId(3L);
+        a2.setPublishedAt(LocalDate.of(2025, 12, 10));
+        LocalDate from = LocalDate.of(2025, 12, 8);
+        LocalDate to = LocalDate.of(2025, 12, 14);
+        when(articleRepository.findPublishedAscending(from, to, from, 0L, Limit.of(2)))
+                .thenReturn(List.of(a1, a2));
+
+        CursorPage<Article> first = articleController.getAll(null, 1, from, to, "publishedAt");
+
+        assertThat(first.items()).containsExactly(a1);
+        assertThat(first.nextCursor()).isNotNull();
+
+        when(articleRepository.findPublishedAscending(from, to, LocalDate.of(2025, 12, 9), 7L, Limit.of(2)))
+                .thenReturn(List.of(a2));
+        CursorPage<Article> second = articleController.getAll(first.nextCursor(), 1, from, to, "publishedAt");
+
+        assertThat(second.items()).containsExactly(a2);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void getAll_sortDescending_startsFromUpperBound() {
+        LocalDate to = LocalDate.of(2025, 12, 14);
+        when(articleRepository.findPublishedDescending(LocalDate.of(1, 1, 1), to, to, Long.MAX_VALUE, Limit.of(21)))
+                .thenReturn(List.of());
+
+        CursorPage<Article> result = articleController.getAll(null, null, null, to, "-publishedAt");
+
+        assertThat(result.items()).isEmpty();
+        verify(articleRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    void getAll_unknownSort_throws400() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> articleController.getAll(null, null, null, null, "title"));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(articleRepository);
+    }
+
+    @Test
+    void getAll_fromAfterTo_throws400() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> articleController.getAll(null, null, LocalDate.of(2025, 12, 2), LocalDate.of(2025, 12, 1), null));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void export_streamsFromRepository() {
+        ResponseEntity<StreamingResponseBody> response = ResponseEntity.ok().build();
+        when(ndjsonExporter.<Article>export(any())).thenReturn(response);
+
+        assertThat(articleController.export()).isSameAs(response);
+        verify(ndjsonExporter).export(any());
+    }
+
+    @Test
+    void getSummaries_usesProjectionQuery() {
+        when(articleRepository.findSummariesByIdGreaterThan(0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1)))
+                .thenReturn(List.of(new ArticleSummary(1L, "A1", "Alex", LocalDate.of(2025, 12, 10))));
+
+        CursorPage<ArticleSummary> result = articleController.getSummaries(null, null);
+
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.items().get(0).id()).isEqualTo(1L);
+        verify(articleRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
     }
 
     @Test
@@ -47,7 +200,7 @@ class ArticleControllerTest {
         when(articleRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ResponseStatusException.class,
-                () -> articleController.getById(99L));
+                () -> articleController.getById(99L, getRequest()));
 
         verify(articleRepository).findById(99L);
     }
@@ -58,7 +211,7 @@ class ArticleControllerTest {
         toSave.setTitle("New");
         toSave.setText("Content");
         toSave.setAuthor("Admin");
-        toSave.setPublishedAt(LocalDate.now().toString());
+        toSave.setPublishedAt(LocalDate.now());
 
         Article saved = new Article();
         saved.setId(10L);
@@ -82,7 +235,7 @@ class ArticleControllerTest {
         a1.setId(1L);
         when(articleRepository.findById(1L)).thenReturn(Optional.of(a1));
 
-        Article result = articleController.getById(1L);
+        Article result = articleController.getById(1L, getRequest());
 
         assertThat(result).isSameAs(a1);
         verify(articleRepository).findById(1L);
@@ -100,7 +253,7 @@ class ArticleControllerTest {
         req.setTitle("New");
         req.setText("T");
         req.setAuthor("A");
-        req.setPublishedAt("2025-12-11");
+        req.setPublishedAt(LocalDate.of(2025, 12, 11));
 
         when(articleRepository.save(existing)).thenReturn(existing);
 
@@ -110,6 +263,66 @@ class ArticleControllerTest {
         verify(articleRepository).save(existing);
     }
 
+    @Test
+    void getById_secondCall_servedFromCache() {
+        Article a1 = new Article();
+        a1.setId(1L);
+        when(articleRepository.findById(1L)).thenReturn(Optional.of(a1));
+
+        articleController.getById(1L, getRequest());
+        Article result = articleController.getById(1L, getRequest());
+
+        assertThat(result).isSameAs(a1);
+        verify(articleRepository, times(1)).findById(1L);
+        assertThat(articleCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getById_setsEtagAndLastModified() {
+        Article a1 = new Article();
+        a1.setId(1L);
+        a1.setVersion(3L);
+        a1.setUpdatedAt(Instant.parse("2025-12-10T10:00:00Z"));
+        when(articleRepository.findById(1L)).thenReturn(Optional.of(a1));
+
+        ServletWebRequest request = getRequest();
+        Article result = articleController.getById(1L, request);
+
+        assertThat(result).isSameAs(a1);
+        assertThat(request.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"3\"");
+        assertThat(request.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)).isNotNull();
+    }
+
+    @Test
+    void getById_ifNoneMatchCurrent_returns304WithoutLoadingEntity() {
+        when(articleRepository.findVersionById(1L))
+                .thenReturn(Optional.of(new ContentVersion(3L, Instant.parse("2025-12-10T10:00:00Z"))));
+
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/articles/1");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+        ServletWebRequest request = new ServletWebRequest(servletRequest, new MockHttpServletResponse());
+
+        Article result = articleController.getById(1L, request);
+
+        assertThat(result).isNull();
+        assertThat(request.getResponse().getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        verify(articleRepository, never()).findById(any());
+    }
+
+    @Test
+    void update_invalidatesCachedArticle() {
+        Article existing = new Article();
+        existing.setId(1L);
+        when(articleRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(articleRepository.save(existing)).thenReturn(existing);
+
+        articleController.getById(1L, getRequest());
+        articleController.update(1L, new Article());
+
+        verify(articleCache).invalidate(1L);
+        assertThat(articleCache.getIfPresent(1L)).isNull();
+    }
+
     @Test
     void update_whenNotFound_throws404() {
         when(articleRepository.findById(99L)).thenReturn(Optional.empty());
@@ -119,6 +332,35 @@ class ArticleControllerTest {
                 () -> articleController.update(99L, req));
     }
 
+    @Test
+    void updateBulk_invalidatesUpdatedArticles() {
+        Article a1 = new Article();
+        a1.setId(1L);
+        when(articleRepository.findById(1L)).thenReturn(Optional.of(a1));
+        articleController.getById(1L, getRequest());
+
+        List<Article> items = List.of(a1);
+        BulkResult result = BulkResult.of(List.of(
+                new BulkItemResult(0, 1L, BulkItemResult.Status.UPDATED, null)));
+        when(bulkExecutor.update(eq(items), eq(articleRepository), any(), any())).thenReturn(result);
+
+        assertThat(articleController.updateBulk(items)).isSameAs(result);
+        assertThat(articleCache.getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void patch_appliesOnlyPassedFieldsAndInvalidatesCache() {
+        articleCache.get(4L, key -> new Article());
+        ArticlePatchRequest request = new ArticlePatchRequest();
+        request.setTitle("New title");
+
+        articleController.patch(4L, request);
+
+        verify(patchExecutor).apply(Article.class, 4L, Map.of("title", "New title"), "Article not found");
+        verifyNoInteractions(articleRepository);
+        assertThat(articleCache.contains(4L)).isFalse();
+    }
+
     @Test
     void delete_whenNotFound_throws404() {
         when(articleRepository.existsById(99L)).thenReturn(false);
@@ -135,4 +377,8 @@ class ArticleControllerTest {
 
         verify(articleRepository).deleteById(1L);
     }
+
+    private static ServletWebRequest getRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/articles/1"), new MockHttpServletResponse());
+    }
 }
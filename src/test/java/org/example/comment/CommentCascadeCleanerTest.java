@@ -0,0 +1,104 @@
+package org.example.comment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentCascadeCleanerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ContentExistenceService contentExistenceService;
+
+    @Mock
+    private CommentTombstoneService commentTombstoneService;
+
+    @Mock
+    private CommentStreamHub commentStreamHub;
+
+    private final List<Runnable> queued = new ArrayList<>();
+
+    @Test
+    void contentDeleted_removesCommentsInChunksThenCounter() {
+        CommentCascadeCleaner cleaner = cleaner(2);
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class)))
+                .thenReturn(comments("c1", "c2"), comments("c3"));
+
+        cleaner.contentDeleted(ContentType.VIDEO, List.of(7L));
+        cleaner.contentDeleted(ContentType.VIDEO, List.of(7L));
+        assertThat(queued).hasSize(1);
+        queued.remove(0).run();
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).remove(removed.capture(), eq(Comment.class));
+        assertThat(removed.getAllValues().get(0).getQueryObject().toJson()).contains("c1", "c2");
+        verify(mongoTemplate, times(2)).remove(any(Query.class), eq(CommentReplyBucket.class));
+        verify(mongoTemplate).remove(any(Query.class), eq(CommentCount.class));
+        verify(commentTombstoneService, times(2)).record(anyList());
+        verify(commentStreamHub).publish(ContentType.VIDEO, 7L, "deleted", Map.of("id", "c3"));
+        assertThat(cleaner.stats()).isEqualTo(new CommentCascadeCleaner.Stats(0, 1, 3, 0));
+    }
+
+    @Test
+    void sweep_enqueuesOnlyMissingContentAndReturnsCursor() {
+        CommentCascadeCleaner cleaner = cleaner(100);
+        when(mongoTemplate.find(any(Query.class), eq(CommentCount.class)))
+                .thenReturn(List.of(count(3L), count(5L)));
+        when(contentExistenceService.existingIds(ContentType.ARTICLE, List.of(3L, 5L))).thenReturn(Set.of(3L));
+
+        CommentCascadeCleaner.SweepResult result = cleaner.sweep(ContentType.ARTICLE, null, 2);
+
+        assertThat(result.scanned()).isEqualTo(2);
+        assertThat(result.orphaned()).containsExactly(5L);
+        assertThat(result.nextCursor()).isNotNull();
+        assertThat(queued).hasSize(1);
+    }
+
+    @Test
+    void sweep_whenNothingLeft_returnsNoCursor() {
+        CommentCascadeCleaner cleaner = cleaner(100);
+        when(mongoTemplate.find(any(Query.class), eq(CommentCount.class))).thenReturn(List.of());
+
+        CommentCascadeCleaner.SweepResult result = cleaner.sweep(ContentType.PODCAST, null, 20);
+
+        assertThat(result.nextCursor()).isNull();
+        verifyNoInteractions(contentExistenceService);
+    }
+
+    private CommentCascadeCleaner cleaner(int batchSize) {
+        return new CommentCascadeCleaner(mongoTemplate, contentExistenceService, commentTombstoneService,
+                commentStreamHub, batchSize, Duration.ZERO, queued::add);
+    }
+
+    private static List<Comment> comments(String... ids) {
+        List<Comment> comments = new ArrayList<>();
+        for (String id : ids) {
+            Comment comment = new Comment();
+            comment.setId(id);
+            comments.add(comment);
+        }
+        return comments;
+    }
+
+    private static CommentCount count(Long contentId) {
+        CommentCount count = new CommentCount();
+        count.setContentId(contentId);
+        return count;
+    }
+}
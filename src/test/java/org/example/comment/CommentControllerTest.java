@@ -1,19 +1,28 @@
 package org.example.comment;
 
+import org.bson.types.ObjectId;
 import org.example.comment.dto.CreateCommentRequest;
 import org.example.comment.dto.CreateReplyRequest;
+import org.example.common.CursorPage;
+import org.example.common.KeysetCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -28,6 +37,21 @@ class CommentControllerTest {
     @Mock
     private ContentExistenceService contentExistenceService;
 
+    @Mock
+    private CommentCounterService commentCounterService;
+
+    @Mock
+    private CommentIngestionBuffer commentIngestionBuffer;
+
+    @Mock
+    private CommentStreamHub commentStreamHub;
+
+    @Mock
+    private CommentTombstoneService commentTombstoneService;
+
+    @Mock
+    private CommentReplyTreeService commentReplyTreeService;
+
     @InjectMocks
     private CommentController commentController;
 
@@ -54,16 +78,73 @@ class CommentControllerTest {
         Authentication auth = mock(Authentication.class);
         when(auth.getName()).thenReturn("user1");
 
-        Comment result = commentController.createComment(req, auth);
+        Comment result = commentController.createComment(req, auth).getBody();
 
         assertThat(result.getId()).isEqualTo("id123");
         assertThat(result.getAuthorUsername()).isEqualTo("user1");
 
         verify(contentExistenceService).exists(ContentType.ARTICLE, 2L);
         verify(commentRepository).save(any(Comment.class));
+        verify(commentCounterService).increment(ContentType.ARTICLE, 2L);
+        verify(commentStreamHub).publish(ContentType.ARTICLE, 2L, "created", saved);
         verifyNoMoreInteractions(commentRepository);
     }
 
+    @Test
+    void getCounts_delegatesWithDistinctIds() {
+        when(commentCounterService.counts(ContentType.VIDEO, new LinkedHashSet<>(List.of(1L, 2L))))
+                .thenReturn(Map.of(1L, 5L, 2L, 0L));
+
+        Map<Long, Long> result = commentController.getCounts(ContentType.VIDEO, List.of(1L, 2L, 1L));
+
+        assertThat(result).containsEntry(1L, 5L).containsEntry(2L, 0L);
+    }
+
+    @Test
+    void getCounts_tooManyIds_throws400() {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> commentController.getCounts(ContentType.ARTICLE, ids));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(commentCounterService);
+    }
+
+    @Test
+    void createComment_buffered_returnsAcceptedWithPreassignedId() {
+        CreateCommentRequest req = new CreateCommentRequest();
+        req.setContentType(ContentType.ARTICLE);
+        req.setContentId(2L);
+        req.setText("быстрый комментарий");
+        when(contentExistenceService.exists(ContentType.ARTICLE, 2L)).thenReturn(true);
+        when(commentIngestionBuffer.isEnabled()).thenReturn(true);
+        when(commentIngestionBuffer.offer(any(Comment.class))).thenReturn(true);
+
+        ResponseEntity<Comment> response = commentController.createComment(req, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(ObjectId.isValid(response.getBody().getId())).isTrue();
+        verifyNoInteractions(commentRepository, commentCounterService);
+    }
+
+    @Test
+    void createComment_bufferFull_throws429() {
+        CreateCommentRequest req = new CreateCommentRequest();
+        req.setContentType(ContentType.ARTICLE);
+        req.setContentId(2L);
+        req.setText("не влез");
+        when(contentExistenceService.exists(ContentType.ARTICLE, 2L)).thenReturn(true);
+        when(commentIngestionBuffer.isEnabled()).thenReturn(true);
+        when(commentIngestionBuffer.offer(any(Comment.class))).thenReturn(false);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> commentController.createComment(req, null));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        verifyNoInteractions(commentRepository);
+    }
+
     @Test
     void createComment_whenContentNotFound_throws404() {
         CreateCommentRequest req = new CreateCommentRequest();
@@ -86,56 +167,249 @@ class CommentControllerTest {
     }
 
     @Test
-    void getByContent_returnsSortedList() {
-        Comment c1 = new Comment();
-        c1.setId("c1");
-        c1.setCreatedAt(Instant.parse("2025-12-10T10:00:00Z"));
+    void getByContent_returnsFirstPageWithCursor() {
+        Comment c1 = comment("65a000000000000000000001", "2025-12-10T10:00:00Z");
+        Comment c2 = comment("65a000000000000000000002", "2025-12-10T11:00:00Z");
 
-        Comment c2 = new Comment();
-        c2.setId("c2");
-        c2.setCreatedAt(Instant.parse("2025-12-10T11:00:00Z"));
+        when(commentRepository.findThreadPage(ContentType.ARTICLE, 2L, null, null, false, 2))
+                .thenReturn(List.of(c1, c2));
+
+        CursorPage<Comment> result = commentController.getByContent(ContentType.ARTICLE, 2L, null, 1, "asc", getRequest());
 
-        when(commentRepository.findByContentTypeAndContentIdOrderByCreatedAtAsc(ContentType.ARTICLE, 2L))
+        assertThat(result.items()).containsExactly(c1);
+        assertThat(result.nextCursor()).isNotNull();
+        verify(commentRepository).findThreadPage(ContentType.ARTICLE, 2L, null, null, false, 2);
+        verifyNoMoreInteractions(commentRepository);
+    }
+
+    @Test
+    void getByContent_nextPageContinuesAfterCursorKey() {
+        Comment c1 = comment("65a000000000000000000001", "2025-12-10T10:00:00Z");
+        Comment c2 = comment("65a000000000000000000002", "2025-12-10T10:00:00Z");
+        when(commentRepository.findThreadPage(ContentType.ARTICLE, 2L, null, null, true, 2))
                 .thenReturn(List.of(c1, c2));
+        String cursor = commentController.getByContent(ContentType.ARTICLE, 2L, null, 1, "desc", getRequest())
+                .nextCursor();
 
-        List<Comment> result = commentController.getByContent(ContentType.ARTICLE, 2L);
+        when(commentRepository.findThreadPage(ContentType.ARTICLE, 2L, Instant.parse("2025-12-10T10:00:00Z"),
+                new ObjectId("65a000000000000000000001"), true, 2))
+                .thenReturn(List.of(c2));
+        CursorPage<Comment> second = commentController.getByContent(ContentType.ARTICLE, 2L, cursor, 1, "desc", getRequest());
 
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getId()).isEqualTo("c1");
-        assertThat(result.get(1).getId()).isEqualTo("c2");
+        assertThat(second.items()).containsExactly(c2);
+        assertThat(second.nextCursor()).isNull();
+    }
 
-        assertThat(result.get(0).getCreatedAt()).isBefore(result.get(1).getCreatedAt());
+    @Test
+    void getChanges_returnsChangedAndDeletedWithCursorPastBoth() {
+        Comment changed = comment("65a000000000000000000003", "2025-12-10T10:00:00Z");
+        changed.setUpdatedAt(Instant.parse("2025-12-10T12:00:00Z"));
+        CommentTombstone tombstone = new CommentTombstone("65a000000000000000000001", ContentType.ARTICLE, 2L,
+                Instant.parse("2025-12-10T11:00:00Z"));
+        ObjectId start = new ObjectId("000000000000000000000000");
+        when(commentRepository.findChangedSince(eq(ContentType.ARTICLE), eq(2L), eq(Instant.EPOCH), eq(start),
+                any(Instant.class), eq(21))).thenReturn(List.of(changed));
+        when(commentTombstoneService.findSince(eq(ContentType.ARTICLE), eq(2L), eq(Instant.EPOCH), eq(start),
+                any(Instant.class), eq(21))).thenReturn(List.of(tombstone));
+
+        CommentChanges result = commentController.getChanges(ContentType.ARTICLE, 2L, null, null, null);
+
+        assertThat(result.changed()).containsExactly(changed);
+        assertThat(result.deleted()).containsExactly("65a000000000000000000001");
+        assertThat(result.hasMore()).isFalse();
+        String[] cursor = KeysetCursor.decode(result.nextSince(), 5);
+        assertThat(cursor[0]).isEqualTo(String.valueOf(changed.getUpdatedAt().toEpochMilli()));
+        assertThat(cursor[1]).isEqualTo(changed.getId());
+        assertThat(cursor[2]).isEqualTo(String.valueOf(tombstone.getDeletedAt().toEpochMilli()));
+        assertThat(cursor[3]).isEqualTo(tombstone.getId());
+    }
 
-        verify(commentRepository).findByContentTypeAndContentIdOrderByCreatedAtAsc(ContentType.ARTICLE, 2L);
-        verifyNoMoreInteractions(commentRepository);
+    @Test
+    void getChanges_cursorOlderThanTombstoneRetention_throws410() {
+        long issuedAt = Instant.now().minus(CommentTombstoneService.RETENTION).minusSeconds(60).toEpochMilli();
+        String since = KeysetCursor.encode(0, "000000000000000000000000", 0, "000000000000000000000000", issuedAt);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> commentController.getChanges(ContentType.ARTICLE, 2L, null, since, null));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.GONE);
+        verifyNoInteractions(commentRepository, commentTombstoneService);
+    }
+
+    @Test
+    void getByAuthor_pagesNewestFirstByCreatedAtAndId() {
+        Comment c1 = comment("65a000000000000000000002", "2025-12-10T11:00:00Z");
+        Comment c2 = comment("65a000000000000000000001", "2025-12-10T10:00:00Z");
+        when(commentRepository.findAuthorPage("user1", null, null, 2)).thenReturn(List.of(c1, c2));
+        String cursor = commentController.getByAuthor("user1", null, 1).nextCursor();
+
+        when(commentRepository.findAuthorPage("user1", Instant.parse("2025-12-10T11:00:00Z"),
+                new ObjectId("65a000000000000000000002"), 2))
+                .thenReturn(List.of(c2));
+        CursorPage<Comment> second = commentController.getByAuthor("user1", cursor, 1);
+
+        assertThat(second.items()).containsExactly(c2);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void search_passesMetaFiltersAndReturnsCursor() {
+        Comment c1 = new Comment();
+        c1.setId("665f1c2e8b3e4a1d2c3b4a51");
+        Comment c2 = new Comment();
+        c2.setId("665f1c2e8b3e4a1d2c3b4a52");
+        when(commentRepository.findByMetadata(ContentType.VIDEO, 3L, Map.of("platform", "ios"), null, 2))
+                .thenReturn(List.of(c1, c2));
+
+        Map<String, String> params = Map.of("type", "VIDEO", "contentId", "3", "limit", "1", "meta.platform", "ios");
+        CursorPage<Comment> page = commentController.search(ContentType.VIDEO, 3L, null, 1, params);
+
+        assertThat(page.items()).containsExactly(c1);
+        assertThat(KeysetCursor.decode(page.nextCursor(), 1)[0]).isEqualTo(c1.getId());
+    }
+
+    @Test
+    void search_withoutMetaFilters_throws400() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> commentController.search(null, null, null, null, Map.of("type", "VIDEO")));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void search_withOperatorInKey_throws400() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> commentController.search(null, null, null, null, Map.of("meta.a.$where", "1")));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getByContent_unknownOrder_throws400() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> commentController.getByContent(ContentType.ARTICLE, 2L, null, null, "random", getRequest()));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getByContent_ifNoneMatchCurrentPage_returns304() {
+        Comment c1 = comment("65a000000000000000000001", "2025-12-10T10:00:00Z");
+        when(commentRepository.findThreadPage(ContentType.ARTICLE, 2L, null, null, false, 21))
+                .thenReturn(List.of(c1));
+        ServletWebRequest first = getRequest();
+        commentController.getByContent(ContentType.ARTICLE, 2L, null, null, "asc", first);
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/comments/by-content");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        ServletWebRequest request = new ServletWebRequest(servletRequest, new MockHttpServletResponse());
+
+        CursorPage<Comment> result = commentController.getByContent(ContentType.ARTICLE, 2L, null, null, "asc", request);
+
+        assertThat(etag).isNotNull();
+        assertThat(result).isNull();
+        assertThat(request.getResponse().getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+    }
+
+    @Test
+    void getById_setsEtagFromUpdatedAt() {
+        Comment c = new Comment();
+        c.setId("c1");
+        c.setUpdatedAt(Instant.parse("2025-12-10T10:00:00Z"));
+        when(commentRepository.findWithReplyPreview("c1")).thenReturn(Optional.of(c));
+
+        ServletWebRequest request = getRequest();
+        Comment result = commentController.getById("c1", request);
+
+        assertThat(result).isSameAs(c);
+        assertThat(request.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"1765360800000\"");
+    }
+
+    @Test
+    void getReplies_returnsPositionCursorWhileMoreRemain() {
+        List<CommentReply> replies = List.of(
+                new CommentReply("r3", "u", "3"), new CommentReply("r4", "u", "4"), new CommentReply("r5", "u", "5"));
+        when(commentRepository.findReplies("c1", 0, 3)).thenReturn(Optional.of(replies));
+
+        CursorPage<CommentReply> first = commentController.getReplies("c1", null, null, 2);
+
+        assertThat(first.items()).extracting(CommentReply::getId).containsExactly("r3", "r4");
+        when(commentRepository.findReplies("c1", 2, 3)).thenReturn(Optional.of(List.of(replies.get(2))));
+
+        CursorPage<CommentReply> second = commentController.getReplies("c1", null, first.nextCursor(), 2);
+
+        assertThat(second.items()).extracting(CommentReply::getId).containsExactly("r5");
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void getReplies_skipsUnwrittenSlotsButKeepsPositionCursor() {
+        when(commentRepository.findReplies("c1", 0, 3)).thenReturn(Optional.of(Arrays.asList(
+                new CommentReply("r0", "u", "0"), null, new CommentReply("r2", "u", "2"))));
+
+        CursorPage<CommentReply> page = commentController.getReplies("c1", null, null, 2);
+
+        assertThat(page.items()).extracting(CommentReply::getId).containsExactly("r0");
+        assertThat(KeysetCursor.decodeId(page.nextCursor())).isEqualTo(2L);
+    }
+
+    @Test
+    void getReplies_rejectsConflictingAfterAndCursor() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> commentController.getReplies("c1", KeysetCursor.encode(2L), KeysetCursor.encode(4L), 2));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getReplies_whenCommentMissing_throws() {
+        when(commentRepository.findReplies("missing", 0, 21)).thenReturn(Optional.empty());
+
+        assertThrows(CommentNotFoundException.class, () -> commentController.getReplies("missing", null, null, null));
+    }
+
+    @Test
+    void getById_whenMissingAndConditional_throws() {
+        when(commentRepository.findUpdatedAtById("missing")).thenReturn(Optional.empty());
+
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/comments/missing");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1\"");
+
+        assertThrows(CommentNotFoundException.class, () -> commentController.getById("missing",
+                new ServletWebRequest(servletRequest, new MockHttpServletResponse())));
     }
 
     @Test
     void addReply_whenCommentNotFound_throws() {
-        when(commentRepository.findById("missing")).thenReturn(Optional.empty());
+        when(commentRepository.pushReply(eq("missing"), any(CommentReply.class), any(Instant.class))).thenReturn(Optional.empty());
 
         CreateReplyRequest req = new CreateReplyRequest();
         req.setText("ответ");
 
-        Authentication auth = mock(Authentication.class); // без стаба getName()
+        Authentication auth = mock(Authentication.class);
 
         assertThrows(
                 CommentNotFoundException.class,
                 () -> commentController.addReply("missing", req, auth)
         );
 
-        verify(commentRepository).findById("missing");
+        verify(commentRepository).pushReply(eq("missing"), any(CommentReply.class), any(Instant.class));
         verifyNoMoreInteractions(commentRepository);
+        verifyNoInteractions(commentStreamHub);
     }
 
     @Test
-    void addReply_addsReplyToComment() {
-        Comment comment = new Comment();
-        comment.setId("c1");
-        comment.setReplies(new ArrayList<>());
-
-        when(commentRepository.findById("c1")).thenReturn(Optional.of(comment));
-        when(commentRepository.save(comment)).thenReturn(comment);
+    void addReply_pushesReplyWithoutLoadingComment() {
+        Comment owner = new Comment();
+        owner.setContentType(ContentType.ARTICLE);
+        owner.setContentId(1L);
+        when(commentRepository.pushReply(eq("c1"), any(CommentReply.class), any(Instant.class)))
+                .thenReturn(Optional.of(owner));
 
         CreateReplyRequest req = new CreateReplyRequest();
         req.setText("reply");
@@ -143,26 +417,75 @@ class CommentControllerTest {
         Authentication auth = mock(Authentication.class);
         when(auth.getName()).thenReturn("user2");
 
-        Comment result = commentController.addReply("c1", req, auth);
+        CommentReply result = commentController.addReply("c1", req, auth);
 
-        assertThat(result.getReplies()).hasSize(1);
-        assertThat(result.getReplies().get(0).getText()).isEqualTo("reply");
-        assertThat(result.getReplies().get(0).getAuthorUsername()).isEqualTo("user2");
+        assertThat(result.getId()).isNotBlank();
+        assertThat(result.getText()).isEqualTo("reply");
+        assertThat(result.getAuthorUsername()).isEqualTo("user2");
 
-        verify(commentRepository).findById("c1");
-        verify(commentRepository).save(comment);
+        verify(commentRepository).pushReply("c1", result, result.getCreatedAt());
         verifyNoMoreInteractions(commentRepository);
+        verify(commentStreamHub).publish(ContentType.ARTICLE, 1L, "reply", Map.of("commentId", "c1", "reply", result));
     }
 
     @Test
-    void updateComment_byAuthor_updatesText() {
-        Comment c = new Comment();
-        c.setId("c1");
-        c.setAuthorUsername("user1");
-        c.setText("old text");
+    void addNestedReply_savesNodeTouchesCommentAndPublishes() {
+        when(commentReplyTreeService.add(eq("c1"), eq("r1"), any(CommentReplyNode.class)))
+                .thenAnswer(inv -> inv.getArgument(2));
+        Comment owner = new Comment();
+        owner.setContentType(ContentType.VIDEO);
+        owner.setContentId(3L);
+        when(commentRepository.touch(eq("c1"), any(Instant.class))).thenReturn(Optional.of(owner));
+
+        CreateReplyRequest req = new CreateReplyRequest();
+        req.setText("nested");
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("user2");
+
+        CommentReplyNode result = commentController.addNestedReply("c1", "r1", req, auth);
+
+        assertThat(result.getAuthorUsername()).isEqualTo("user2");
+        assertThat(result.getText()).isEqualTo("nested");
+        verify(commentRepository).touch("c1", result.getCreatedAt());
+        verify(commentStreamHub).publish(ContentType.VIDEO, 3L, "reply",
+                Map.of("commentId", "c1", "parentId", "r1", "reply", result));
+    }
+
+    @Test
+    void getBranches_tooManyBranches_throws400() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> commentController.getBranches("c1", "r1", CommentReplyTreeService.MAX_BRANCHES + 1, 3));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(commentReplyTreeService);
+    }
 
-        when(commentRepository.findById("c1")).thenReturn(Optional.of(c));
-        when(commentRepository.save(c)).thenReturn(c);
+    @Test
+    void getSubtree_returnsPathCursor() {
+        when(commentReplyTreeService.maxDepth()).thenReturn(6);
+        CommentReplyNode n1 = new CommentReplyNode();
+        n1.setPath("r1/a");
+        CommentReplyNode n2 = new CommentReplyNode();
+        n2.setPath("r1/a/b");
+        when(commentReplyTreeService.subtree("c1", "r1", null, 6, 2)).thenReturn(List.of(n1, n2));
+
+        CursorPage<CommentReplyNode> page = commentController.getSubtree("c1", "r1", null, null, 1);
+
+        assertThat(page.items()).containsExactly(n1);
+        assertThat(KeysetCursor.decode(page.nextCursor(), 1)[0]).isEqualTo("r1/a");
+    }
+
+    @Test
+    void updateComment_byAuthor_updatesTextInOneRoundTrip() {
+        Comment updated = new Comment();
+        updated.setId("c1");
+        updated.setContentType(ContentType.ARTICLE);
+        updated.setContentId(2L);
+        updated.setAuthorUsername("user1");
+        updated.setText("new text");
+
+        when(commentRepository.updateText(eq("c1"), eq("user1"), eq("new text"), any(Instant.class)))
+                .thenReturn(Optional.of(updated));
 
         Authentication auth = mock(Authentication.class);
         when(auth.getName()).thenReturn("user1");
@@ -171,17 +494,31 @@ class CommentControllerTest {
         Comment result = commentController.updateComment("c1", Map.of("text", "new text"), auth);
 
         assertThat(result.getText()).isEqualTo("new text");
-        verify(commentRepository).save(c);
+        verify(commentStreamHub).publish(ContentType.ARTICLE, 2L, "updated", updated);
         verifyNoMoreInteractions(commentRepository);
     }
 
     @Test
-    void updateComment_byAnotherUser_notAdmin_forbidden() {
-        Comment c = new Comment();
-        c.setId("c1");
-        c.setAuthorUsername("author");
+    void updateComment_byAdmin_skipsAuthorFilter() {
+        Comment updated = new Comment();
+        updated.setId("c1");
+        updated.setText("fixed");
 
-        when(commentRepository.findById("c1")).thenReturn(Optional.of(c));
+        when(commentRepository.updateText(eq("c1"), isNull(), eq("fixed"), any(Instant.class)))
+                .thenReturn(Optional.of(updated));
+
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("admin");
+        when(auth.getAuthorities()).thenReturn((Collection) List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        assertThat(commentController.updateComment("c1", Map.of("text", "fixed"), auth)).isSameAs(updated);
+    }
+
+    @Test
+    void updateComment_byAnotherUser_notAdmin_forbidden() {
+        when(commentRepository.updateText(eq("c1"), eq("intruder"), eq("hack"), any(Instant.class)))
+                .thenReturn(Optional.empty());
+        when(commentRepository.existsById("c1")).thenReturn(true);
 
         Authentication auth = mock(Authentication.class);
         when(auth.getName()).thenReturn("intruder");
@@ -194,7 +531,21 @@ class CommentControllerTest {
 
         assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
         verify(commentRepository, never()).save(any());
-        verifyNoMoreInteractions(commentRepository);
+        verifyNoInteractions(commentStreamHub);
+    }
+
+    @Test
+    void updateComment_whenMissing_throws404() {
+        when(commentRepository.updateText(eq("missing"), eq("user1"), eq("text"), any(Instant.class)))
+                .thenReturn(Optional.empty());
+        when(commentRepository.existsById("missing")).thenReturn(false);
+
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("user1");
+        when(auth.getAuthorities()).thenReturn((Collection) List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        assertThrows(CommentNotFoundException.class,
+                () -> commentController.updateComment("missing", Map.of("text", "text"), auth));
     }
 
     @Test
@@ -203,12 +554,33 @@ class CommentControllerTest {
         when(auth.getName()).thenReturn("admin");
         when(auth.getAuthorities()).thenReturn((Collection) List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
 
+        Comment removed = new Comment();
+        removed.setContentType(ContentType.PODCAST);
+        removed.setContentId(9L);
+        when(commentRepository.removeById("c1")).thenReturn(Optional.of(removed));
+
         commentController.deleteComment("c1", auth);
 
-        verify(commentRepository).deleteById("c1");
+        verify(commentRepository).removeById("c1");
+        verify(commentRepository).deleteReplies("c1");
+        verify(commentTombstoneService).record(List.of(removed));
+        verify(commentCounterService).decrement(ContentType.PODCAST, 9L);
+        verify(commentStreamHub).publish(ContentType.PODCAST, 9L, "deleted", Map.of("id", "c1"));
         verifyNoMoreInteractions(commentRepository);
     }
 
+    @Test
+    void deleteComment_whenMissing_throwsAndKeepsCounter() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("admin");
+        when(auth.getAuthorities()).thenReturn((Collection) List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        when(commentRepository.removeById("missing")).thenReturn(Optional.empty());
+
+        assertThrows(CommentNotFoundException.class, () -> commentController.deleteComment("missing", auth));
+
+        verifyNoInteractions(commentCounterService);
+    }
+
     @Test
     void deleteComment_byNotAuthor_notAdmin_forbidden() {
         Authentication auth = mock(Authentication.class);
@@ -221,7 +593,19 @@ class CommentControllerTest {
         );
 
         assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
-        verify(commentRepository, never()).deleteById(anyString());
+        verify(commentRepository, never()).removeById(anyString());
         verifyNoMoreInteractions(commentRepository);
     }
-}
\ No newline at end of file
+
+    private static ServletWebRequest getRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/comments"), new MockHttpServletResponse());
+    }
+
+    private static Comment comment(String id, String createdAt) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setCreatedAt(Instant.parse(createdAt));
+        comment.setUpdatedAt(Instant.parse(createdAt));
+        return comment;
+    }
+}
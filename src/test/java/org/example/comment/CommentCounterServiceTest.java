@@ -0,0 +1,61 @@
+package org.example.comment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentCounterServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private CommentCounterService commentCounterService;
+
+    @Test
+    void counts_fillsZerosForContentWithoutComments() {
+        CommentCount count = new CommentCount();
+        count.setContentId(2L);
+        count.setCount(7L);
+        when(mongoTemplate.find(any(Query.class), eq(CommentCount.class))).thenReturn(List.of(count));
+
+        Map<Long, Long> result = commentCounterService.counts(ContentType.ARTICLE, List.of(1L, 2L, 3L));
+
+        assertThat(result).containsExactly(Map.entry(1L, 0L), Map.entry(2L, 7L), Map.entry(3L, 0L));
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(CommentCount.class));
+    }
+
+    @Test
+    void decrement_upsertsNegativeIncrement() {
+        commentCounterService.decrement(ContentType.VIDEO, 4L);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(CommentCount.class));
+        assertThat(update.getValue().getUpdateObject().toJson()).contains("\"$inc\"").contains("-1");
+    }
+
+    @Test
+    void increment_retriesOnceWhenParallelUpsertCreatedCounter() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(CommentCount.class)))
+                .thenThrow(new DuplicateKeyException("race"))
+                .thenReturn(null);
+
+        commentCounterService.increment(ContentType.ARTICLE, 1L);
+
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), any(Update.class), eq(CommentCount.class));
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.comment;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнение скорости вставки в comments со старым и новым набором вторичных индексов.
+ * Нужен живой MongoDB, поэтому запускается только явно:
+ * {@code mvn test -Dtest=CommentIndexWriteBenchmarkTest -Dbenchmark.mongo.uri=mongodb://localhost:27017}
+ * (число вставок — {@code -Dbenchmark.inserts}, по умолчанию 50000). Результат пишется в лог; с
+ * {@code -Dbenchmark.min-speedup=1.2} тест ещё и падает, если новый набор не быстрее старого в столько раз.
+ */
+@EnabledIfSystemProperty(named = "benchmark.mongo.uri", matches = ".+")
+class CommentIndexWriteBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentIndexWriteBenchmarkTest.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    // вторичные индексы comments, объявленные в Comment до пересмотра: одиночные по contentType/contentId/
+    // authorUsername, старый и новый ключ ветки и wildcard по metadata
+    private static final Map<String, Document> BEFORE = Map.of(
+            "idx_comment_content_type", new Document("contentType", 1),
+            "idx_comment_content_id", new Document("contentId", 1),
+            "idx_comment_author", new Document("authorUsername", 1),
+            "idx_content_type_content_id_created_at",
+            new Document("contentType", 1).append("contentId", 1).append("createdAt", -1),
+            "idx_content_type_content_id_created_at_id",
+            new Document("contentType", 1).append("contentId", 1).append("createdAt", -1).append("_id", -1),
+            "idx_comment_metadata_wildcard", new Document("metadata.$**", 1));
+
+    // после пересмотра: ключ ветки, лента автора и тот же wildcard
+    private static final Map<String, Document> AFTER = Map.of(
+            "idx_content_type_content_id_created_at_id",
+            new Document("contentType", 1).append("contentId", 1).append("createdAt", -1).append("_id", -1),
+            "idx_author_created_at_id",
+            new Document("authorUsername", 1).append("createdAt", -1).append("_id", -1),
+            "idx_comment_metadata_wildcard", new Document("metadata.$**", 1));
+
+    @Test
+    void insertThroughput_beforeAndAfterIndexRationalization() {
+        int inserts = Integer.getInteger("benchmark.inserts", 50_000);
+        String minSpeedup = System.getProperty("benchmark.min-speedup");
+        try (MongoClient client = MongoClients.create(System.getProperty("benchmark.mongo.uri"))) {
+            MongoDatabase database = client.getDatabase("media_cms_benchmark");
+
+            double before = measure(database.getCollection("comments_before"), BEFORE, inserts);
+            double after = measure(database.getCollection("comments_after"), AFTER, inserts);
+
+            log.info("comments insert: {} индексов — {} док/с, {} индексов — {} док/с (x{})",
+                    BEFORE.size(), Math.round(before), AFTER.size(), Math.round(after),
+                    String.format("%.2f", after / before));
+            // время на общем хосте шумит: сравнение — только по явно заданному порогу
+            if (minSpeedup != null) {
+                assertThat(after / before).isGreaterThanOrEqualTo(Double.parseDouble(minSpeedup));
+            }
+        }
+    }
+
+    private static double measure(MongoCollection<Document> collection, Map<String, Document> indexes, int inserts) {
+        collection.drop();
+        indexes.forEach((name, keys) -> collection.createIndex(keys, new IndexOptions().name(name)));
+        try {
+            long started = System.nanoTime();
+            List<Document> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < inserts; i++) {
+                batch.add(comment(i));
+                if (batch.size() == BATCH_SIZE) {
+                    collection.insertMany(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                collection.insertMany(batch);
+            }
+            return inserts / ((System.nanoTime() - started) / 1e9);
+        } finally {
+            collection.drop();
+        }
+    }
+
+    private static Document comment(int i) {
+        Instant now = Instant.now();
+        return new Document("contentType", ContentType.values()[i % ContentType.values().length].name())
+                .append("contentId", (long) (i % 1000))
+                .append("authorUsername", "user" + (i % 500))
+                .append("text", "комментарий " + i)
+                .append("createdAt", now)
+                .append("updatedAt", now)
+                .append("replies", List.of())
+                .append("replyCount", 0)
+                .append("metadata", new Document("platform", i % 2 == 0 ? "ios" : "web"));
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.comment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentIngestionBufferTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CommentCounterService commentCounterService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Test
+    void offer_whenDisabled_rejects() {
+        CommentIngestionBuffer buffer = buffer(false, 10);
+        buffer.start();
+
+        assertThat(buffer.offer(comment(1L))).isFalse();
+        assertThat(buffer.stats().rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void offer_whenQueueFull_rejects() throws InterruptedException {
+        CountDownLatch insertStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        stubBulkInsert();
+        when(bulkOperations.execute()).thenAnswer(invocation -> {
+            insertStarted.countDown();
+            release.await();
+            return null;
+        });
+        CommentIngestionBuffer buffer = buffer(true, 1);
+        buffer.start();
+        try {
+            // первый документ ушёл во вставку, которая «висит»; очередь на 1 место
+            buffer.offer(comment(1L));
+            assertThat(insertStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(buffer.offer(comment(1L))).isTrue();
+            assertThat(buffer.offer(comment(1L))).isFalse();
+            assertThat(buffer.stats().queueDepth()).isEqualTo(1);
+            assertThat(buffer.stats().rejected()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            buffer.stop();
+        }
+        assertThat(buffer.stats().inserted()).isEqualTo(2);
+    }
+
+    @Test
+    void stop_flushesQueuedCommentsAndCounters() throws InterruptedException {
+        stubBulkInsert();
+        CommentIngestionBuffer buffer = buffer(true, 100);
+        buffer.start();
+
+        buffer.offer(comment(1L));
+        buffer.offer(comment(1L));
+        buffer.offer(comment(2L));
+        buffer.stop();
+
+        CommentIngestionBuffer.Stats stats = buffer.stats();
+        assertThat(stats.inserted()).isEqualTo(3);
+        assertThat(stats.queueDepth()).isZero();
+        verify(commentCounterService).add(ContentType.ARTICLE, 1L, 2L);
+        verify(commentCounterService).add(ContentType.ARTICLE, 2L, 1L);
+    }
+
+    @Test
+    void stop_writesEveryCommentAcceptedWhileStopping() throws InterruptedException {
+        stubBulkInsert();
+        CommentIngestionBuffer buffer = buffer(true, 100_000);
+        buffer.start();
+        AtomicLong accepted = new AtomicLong();
+        CountDownLatch offering = new CountDownLatch(4);
+        List<Thread> producers = IntStream.range(0, 4)
+                .mapToObj(i -> new Thread(() -> {
+                    offering.countDown();
+                    for (int n = 0; n < 5_000; n++) {
+                        if (buffer.offer(comment(1L))) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                }))
+                .toList();
+        producers.forEach(Thread::start);
+
+        assertThat(offering.await(5, TimeUnit.SECONDS)).isTrue();
+        buffer.stop();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertThat(buffer.offer(comment(1L))).isFalse();
+        assertThat(buffer.stats().queueDepth()).isZero();
+        assertThat(buffer.stats().inserted()).isEqualTo(accepted.get());
+    }
+
+    @Test
+    void insert_whenBulkFails_countsFailedAndSkipsCounters() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("mongo down"));
+        CommentIngestionBuffer buffer = buffer(true, 100);
+
+        buffer.insert(List.of(comment(1L), comment(1L)));
+
+        assertThat(buffer.stats().failed()).isEqualTo(2);
+        assertThat(buffer.stats().batches()).isEqualTo(1);
+        verifyNoInteractions(commentCounterService);
+    }
+
+    private CommentIngestionBuffer buffer(boolean enabled, int capacity) {
+        return new CommentIngestionBuffer(mongoTemplate, commentCounterService,
+                enabled, capacity, 500, Duration.ofMillis(20));
+    }
+
+    private void stubBulkInsert() {
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class)).thenReturn(bulkOperations);
+        lenient().when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    private static Comment comment(Long contentId) {
+        Comment comment = new Comment();
+        comment.setContentType(ContentType.ARTICLE);
+        comment.setContentId(contentId);
+        comment.setText("t");
+        return comment;
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.comment;
+
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentModerationServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CommentCounterService commentCounterService;
+
+    @Mock
+    private CommentStreamHub commentStreamHub;
+
+    @Mock
+    private CommentTombstoneService commentTombstoneService;
+
+    private final List<Runnable> queued = new ArrayList<>();
+
+    @Test
+    void deleteByIds_removesDistinctIdsInChunksAndAdjustsCounters() {
+        CommentModerationService service = service(2);
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class)))
+                .thenReturn(List.of(comment("a", 1L), comment("b", 1L)), List.of(comment("c", 2L)));
+        when(mongoTemplate.remove(any(Query.class), eq(Comment.class)))
+                .thenReturn(DeleteResult.acknowledged(2), DeleteResult.acknowledged(1));
+
+        CommentModerationService.Progress submitted = service.deleteByIds(List.of("a", "b", "c", "a"));
+        assertThat(submitted.status()).isEqualTo(CommentModerationService.Status.RUNNING);
+        queued.remove(0).run();
+
+        verify(mongoTemplate, times(2)).remove(any(Query.class), eq(CommentReplyBucket.class));
+        verify(commentTombstoneService, times(2)).record(anyList());
+        verify(commentCounterService).add(ContentType.ARTICLE, 1L, -2);
+        verify(commentCounterService).add(ContentType.ARTICLE, 2L, -1);
+        CommentModerationService.Progress done = service.progress(submitted.id()).orElseThrow();
+        assertThat(done.status()).isEqualTo(CommentModerationService.Status.DONE);
+        assertThat(done.deletedComments()).isEqualTo(3);
+    }
+
+    @Test
+    void deleteByAuthor_redactsEmbeddedAndBucketedRepliesInPlace() {
+        CommentModerationService service = service(10);
+        Comment thread = comment("65a000000000000000000001", 1L);
+        thread.setReplies(new ArrayList<>(List.of(new CommentReply("r1", "spammer", "buy"),
+                new CommentReply("r2", "user1", "ok"), new CommentReply("r3", "spammer", "buy"))));
+        CommentReplyBucket bucket = new CommentReplyBucket();
+        bucket.setId("65a000000000000000000009");
+        bucket.setCommentId("65a000000000000000000002");
+        bucket.setReplies(List.of(new CommentReply("r4", "spammer", "buy")));
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenReturn(List.of(), List.of(thread));
+        when(mongoTemplate.find(any(Query.class), eq(CommentReplyBucket.class))).thenReturn(List.of(bucket));
+
+        String jobId = service.deleteByAuthor("spammer", true).id();
+        queued.remove(0).run();
+
+        ArgumentCaptor<UpdateDefinition> commentUpdates = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate, times(2)).updateMulti(any(Query.class), commentUpdates.capture(), eq(Comment.class));
+        // встроенные ответы затираются на месте: replies не фильтруется, replyCount не меняется
+        Update embedded = (Update) commentUpdates.getAllValues().get(0);
+        assertThat(embedded.getUpdateObject().keySet()).containsExactly("$set");
+        assertThat(embedded.getUpdateObject().get("$set", Document.class))
+                .containsEntry("replies.$[r].text", CommentModerationService.REMOVED_REPLY_TEXT)
+                .containsKey("updatedAt");
+        assertThat(embedded.getArrayFilters()).hasSize(1);
+        // ветка с затёртым ответом в корзине тоже получает новый updatedAt
+        assertThat(((Update) commentUpdates.getAllValues().get(1)).getUpdateObject().get("$set", Document.class))
+                .containsKey("updatedAt");
+
+        ArgumentCaptor<Update> redact = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), redact.capture(), eq(CommentReplyBucket.class));
+        assertThat(redact.getValue().getUpdateObject().get("$set", Document.class).get("replies.$[r].text"))
+                .isEqualTo(CommentModerationService.REMOVED_REPLY_TEXT);
+        assertThat(service.progress(jobId).orElseThrow().removedReplies()).isEqualTo(3);
+    }
+
+    @Test
+    void failedJob_reportsError() {
+        CommentModerationService service = service(10);
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenThrow(new IllegalStateException("boom"));
+
+        String jobId = service.deleteByContent(ContentType.VIDEO, 1L,
+                Instant.EPOCH, Instant.now()).id();
+        queued.remove(0).run();
+
+        CommentModerationService.Progress progress = service.progress(jobId).orElseThrow();
+        assertThat(progress.status()).isEqualTo(CommentModerationService.Status.FAILED);
+        assertThat(progress.error()).isEqualTo("boom");
+    }
+
+    private CommentModerationService service(int batchSize) {
+        return new CommentModerationService(mongoTemplate, commentCounterService, commentStreamHub,
+                commentTombstoneService, batchSize, Duration.ZERO, queued::add);
+    }
+
+    private static Comment comment(String id, Long contentId) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setContentType(ContentType.ARTICLE);
+        comment.setContentId(contentId);
+        return comment;
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.comment;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentReplyTreeServiceTest {
+
+    private static final String NODE_ID = "65a000000000000000000001";
+    private static final String CHILD_ID = "65a000000000000000000002";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private CommentReplyTreeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CommentReplyTreeService(mongoTemplate, 3);
+    }
+
+    @Test
+    void add_underTopLevelReply_startsPathAtReplyId() {
+        when(mongoTemplate.exists(any(Query.class), eq(Comment.class))).thenReturn(true);
+        when(mongoTemplate.insert(any(CommentReplyNode.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        CommentReplyNode saved = service.add("c1", "top-reply", new CommentReplyNode());
+
+        assertThat(saved.getPath()).isEqualTo("top-reply/" + saved.getId());
+        assertThat(saved.getDepth()).isEqualTo(1);
+        assertThat(saved.getParentId()).isEqualTo("top-reply");
+    }
+
+    @Test
+    void add_underNode_extendsParentPath() {
+        when(mongoTemplate.findOne(any(Query.class), eq(CommentReplyNode.class))).thenReturn(node("top/" + NODE_ID, 1));
+        when(mongoTemplate.insert(any(CommentReplyNode.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        CommentReplyNode saved = service.add("c1", NODE_ID, new CommentReplyNode());
+
+        assertThat(saved.getPath()).isEqualTo("top/" + NODE_ID + "/" + saved.getId());
+        assertThat(saved.getDepth()).isEqualTo(2);
+    }
+
+    @Test
+    void add_atMaxDepth_throws400() {
+        when(mongoTemplate.findOne(any(Query.class), eq(CommentReplyNode.class))).thenReturn(node("a/b/c/" + NODE_ID, 3));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.add("c1", NODE_ID, new CommentReplyNode()));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(mongoTemplate, never()).insert(any(CommentReplyNode.class));
+    }
+
+    @Test
+    void add_unknownParent_throws404() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.add("c1", "missing", new CommentReplyNode()));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void subtree_readsDescendantPathRangePerLevelWithinDepth() {
+        when(mongoTemplate.findOne(any(Query.class), eq(CommentReplyNode.class))).thenReturn(node("top/" + NODE_ID, 1));
+
+        service.subtree("c1", NODE_ID, null, 1, 21);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(CommentReplyNode.class));
+        String json = query.getValue().getQueryObject().toJson();
+        assertThat(json).contains("\"$gte\": \"top/" + NODE_ID + "/\"", "\"$lt\": \"top/" + NODE_ID + "0\"",
+                "\"depth\": {\"$in\": [2]}");
+        assertThat(query.getValue().getSortObject()).isEqualTo(new Document("path", 1));
+        assertThat(query.getValue().getHint()).isEqualTo("idx_comment_id_depth_path");
+        assertThat(query.getValue().getLimit()).isEqualTo(21);
+    }
+
+    @Test
+    void subtree_depthClampedToMaxDepth() {
+        when(mongoTemplate.exists(any(Query.class), eq(Comment.class))).thenReturn(true);
+
+        service.subtree("c1", "top", null, 100, 21);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(CommentReplyNode.class));
+        assertThat(query.getValue().getQueryObject().toJson()).contains("\"depth\": {\"$in\": [1, 2, 3]}");
+    }
+
+    @Test
+    void subtree_unknownReply_throws404() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.subtree("c1", "missing", null, 2, 21));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(CommentReplyNode.class));
+    }
+
+    @Test
+    void subtree_cursorOutsideSubtree_throws400() {
+        when(mongoTemplate.exists(any(Query.class), eq(Comment.class))).thenReturn(true);
+
+        assertThrows(ResponseStatusException.class,
+                () -> service.subtree("c1", "top", "other/x", 2, 21));
+    }
+
+    @Test
+    void branches_readsHeadsAndBoundedChildrenInOneAggregation() {
+        when(mongoTemplate.getConverter()).thenReturn(converter());
+        Document head = new Document("_id", new ObjectId(NODE_ID)).append("path", "top/" + NODE_ID).append("depth", 1)
+                .append("children", List.of(
+                        new Document("_id", new ObjectId(CHILD_ID)).append("path", "top/" + NODE_ID + "/" + CHILD_ID),
+                        new Document("_id", new ObjectId()).append("path", "top/" + NODE_ID + "/x")));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(CommentReplyNode.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(head), new Document()));
+
+        List<CommentReplyTreeService.ReplyBranch> result = service.branches("c1", "top", 10, 1);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).reply().getId()).isEqualTo(NODE_ID);
+        assertThat(result.get(0).children()).extracting(CommentReplyNode::getId).containsExactly(CHILD_ID);
+        assertThat(result.get(0).hasMoreChildren()).isTrue();
+
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(CommentReplyNode.class), eq(Document.class));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(CommentReplyNode.class));
+        List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertThat(pipeline.get(0).get("$match", Document.class))
+                .containsEntry("commentId", "c1").containsEntry("parentId", "top");
+        assertThat(pipeline.get(2)).containsEntry("$limit", 10L);
+        Document lookup = pipeline.get(3).get("$lookup", Document.class);
+        assertThat(lookup.get("let", Document.class)).containsEntry("head", new Document("$toString", "$_id"));
+        List<Document> children = lookup.getList("pipeline", Document.class);
+        assertThat(children.get(0).get("$match", Document.class)).containsEntry("commentId", "c1");
+        assertThat(children.get(1)).containsEntry("$sort", new Document("path", 1));
+        assertThat(children.get(2)).containsEntry("$limit", 2L);
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private static CommentReplyNode node(String path, int depth) {
+        CommentReplyNode node = new CommentReplyNode();
+        node.setPath(path);
+        node.setDepth(depth);
+        return node;
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.comment;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentRepositoryImplTest {
+
+    private static final Instant NOW = Instant.parse("2025-12-10T10:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private CommentRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CommentRepositoryImpl(mongoTemplate, 2, 3);
+    }
+
+    @Test
+    void pushReply_whileEmbeddedNotFull_pushesIntoComment() {
+        Comment owner = new Comment();
+        owner.setContentType(ContentType.VIDEO);
+        owner.setContentId(7L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Comment.class)))
+                .thenReturn(owner);
+
+        assertThat(repository.pushReply("c1", new CommentReply("r1", "u", "t"), NOW)).containsSame(owner);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), eq(Comment.class));
+        assertThat(query.getValue().getQueryObject().toJson()).contains("\"replies.1\"");
+        verifyNoMoreInteractions(mongoTemplate);
+    }
+
+    @Test
+    void pushReply_whenEmbeddedFull_upsertsBucketByOverflowPosition() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Comment.class)))
+                .thenReturn(null);
+        Comment counted = new Comment();
+        counted.setOverflowCount(4);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Comment.class)))
+                .thenReturn(counted);
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(CommentReplyBucket.class)))
+                .thenThrow(new DuplicateKeyException("race"))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertThat(repository.pushReply("c1", new CommentReply("r7", "u", "t"), NOW)).containsSame(counted);
+
+        ArgumentCaptor<Query> bucket = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> push = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).upsert(bucket.capture(), push.capture(), eq(CommentReplyBucket.class));
+        // 4-й ответ в переполнении при размере корзины 3 — корзина seq = 1
+        assertThat(bucket.getValue().getQueryObject().get("seq")).isEqualTo(1);
+        Update.Modifiers modifiers = (Update.Modifiers) push.getValue().getUpdateObject()
+                .get("$push", Document.class).get("replies");
+        Map<String, Object> byKey = new HashMap<>();
+        modifiers.getModifiers().forEach(m -> byKey.put(m.getKey(), m.getValue()));
+        assertThat(byKey.get("$sort")).isEqualTo(Sort.by(Sort.Direction.ASC, "slot"));
+        assertThat((Object[]) byKey.get("$each")).singleElement()
+                .extracting(r -> ((CommentReply) r).getSlot()).isEqualTo(3);
+    }
+
+    @Test
+    void pushReply_whenCommentMissing_returnsEmpty() {
+        assertThat(repository.pushReply("missing", new CommentReply("r1", "u", "t"), NOW)).isEmpty();
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(CommentReplyBucket.class));
+    }
+
+    @Test
+    void findAuthorPage_continuesAfterKeyNewestFirst() {
+        ObjectId afterId = new ObjectId("65a000000000000000000002");
+        repository.findAuthorPage("user1", NOW, afterId, 21);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Comment.class));
+        assertThat(query.getValue().getQueryObject().get("authorUsername")).isEqualTo("user1");
+        // одна граница по createdAt для индекса, совпадение по createdAt с _id не дальше ключа — отсеивается
+        Document filter = query.getValue().getQueryObject();
+        assertThat(filter).doesNotContainKey("$or");
+        assertThat(filter.get("createdAt", Document.class)).isEqualTo(new Document("$lte", NOW));
+        assertThat(filter.getList("$nor", Document.class)).containsExactly(
+                new Document("createdAt", NOW).append("_id", new Document("$gte", afterId)));
+        assertThat(query.getValue().getSortObject()).isEqualTo(new Document("createdAt", -1).append("_id", -1));
+        assertThat(query.getValue().getLimit()).isEqualTo(21);
+    }
+
+    @Test
+    void findThreadPage_oldestFirstBoundsCreatedAtFromBelow() {
+        ObjectId afterId = new ObjectId("65a000000000000000000002");
+        repository.findThreadPage(ContentType.ARTICLE, 2L, NOW, afterId, false, 21);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Comment.class));
+        Document filter = query.getValue().getQueryObject();
+        assertThat(filter).doesNotContainKey("$or");
+        assertThat(filter.get("createdAt", Document.class)).isEqualTo(new Document("$gte", NOW));
+        assertThat(filter.getList("$nor", Document.class)).containsExactly(
+                new Document("createdAt", NOW).append("_id", new Document("$lte", afterId)));
+        assertThat(query.getValue().getSortObject()).isEqualTo(new Document("createdAt", 1).append("_id", 1));
+    }
+
+    @Test
+    void findByMetadata_matchesTextAndTypedValuesUnderMetadataPath() {
+        repository.findByMetadata(null, null, Map.of("build", "42", "beta", "true"), null, 10);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Comment.class));
+        Document filter = query.getValue().getQueryObject();
+        assertThat(filter.keySet()).containsExactlyInAnyOrder("metadata.build", "metadata.beta");
+        assertThat(filter.get("metadata.build", Document.class).getList("$in", Object.class)).containsExactly("42", 42L);
+        assertThat(filter.get("metadata.beta", Document.class).getList("$in", Object.class)).containsExactly("true", true);
+    }
+
+    @Test
+    void updateText_filtersByAuthorAndSetsOnlyTextAndUpdatedAt() {
+        repository.updateText("c1", "user1", "new", NOW);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(),
+                any(FindAndModifyOptions.class), eq(Comment.class));
+        assertThat(query.getValue().getQueryObject().get("authorUsername")).isEqualTo("user1");
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class).keySet())
+                .containsExactlyInAnyOrder("text", "updatedAt");
+        assertThat(update.getValue().getUpdateObject().keySet()).containsExactly("$set");
+    }
+
+    @Test
+    void updateText_withoutAuthor_matchesByIdOnly() {
+        repository.updateText("c1", null, "new", NOW);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Comment.class));
+        assertThat(query.getValue().getQueryObject().keySet()).containsExactly("_id");
+    }
+
+    @Test
+    void findReplies_continuesFromEmbeddedPrefixIntoBuckets() {
+        Comment comment = new Comment();
+        comment.setReplyCount(7);
+        comment.setOverflowCount(5);
+        comment.setReplies(new ArrayList<>(replies(1, 1)));
+        when(mongoTemplate.findOne(any(Query.class), eq(Comment.class))).thenReturn(comment);
+        when(mongoTemplate.find(any(Query.class), eq(CommentReplyBucket.class)))
+                .thenReturn(List.of(bucket(0, replies(2, 3)), bucket(1, replies(5, 2))));
+
+        List<CommentReply> page = repository.findReplies("c1", 1, 4).orElseThrow();
+
+        assertThat(page).extracting(CommentReply::getId).containsExactly("r1", "r2", "r3", "r4");
+    }
+
+    @Test
+    void findReplies_skipPastEmbeddedPrefix_readsOnlyBuckets() {
+        Comment comment = new Comment();
+        comment.setReplyCount(7);
+        comment.setOverflowCount(5);
+        comment.setReplies(new ArrayList<>());
+        when(mongoTemplate.findOne(any(Query.class), eq(Comment.class))).thenReturn(comment);
+        when(mongoTemplate.find(any(Query.class), eq(CommentReplyBucket.class)))
+                .thenReturn(List.of(bucket(1, replies(5, 2))));
+
+        List<CommentReply> page = repository.findReplies("c1", 6, 10).orElseThrow();
+
+        assertThat(page).extracting(CommentReply::getId).containsExactly("r6");
+    }
+
+    @Test
+    void findReplies_placesBucketedRepliesBySlotAndLeavesUnwrittenSlotsEmpty() {
+        Comment comment = new Comment();
+        comment.setReplyCount(7);
+        comment.setOverflowCount(5);
+        comment.setReplies(new ArrayList<>());
+        when(mongoTemplate.findOne(any(Query.class), eq(Comment.class))).thenReturn(comment);
+        // слот 1 зарезервирован, но запись в корзину не дошла; слоты 3 и 4 пришли в обратном порядке
+        when(mongoTemplate.find(any(Query.class), eq(CommentReplyBucket.class)))
+                .thenReturn(List.of(bucket(0, slotted(0, 2)), bucket(1, slotted(4, 3))));
+
+        List<CommentReply> page = repository.findReplies("c1", 2, 10).orElseThrow();
+
+        assertThat(page).extracting(r -> r == null ? null : r.getId())
+                .containsExactly("r0", null, "r2", "r3", "r4");
+    }
+
+    private static List<CommentReply> slotted(int... slots) {
+        return IntStream.of(slots)
+                .mapToObj(slot -> {
+                    CommentReply reply = new CommentReply("r" + slot, "u", "t" + slot);
+                    reply.setSlot(slot);
+                    return reply;
+                })
+                .toList();
+    }
+
+    private static List<CommentReply> replies(int first, int count) {
+        return IntStream.range(first, first + count)
+                .mapToObj(i -> new CommentReply("r" + i, "u", "t" + i))
+                .toList();
+    }
+
+    private static CommentReplyBucket bucket(int seq, List<CommentReply> replies) {
+        CommentReplyBucket bucket = new CommentReplyBucket();
+        bucket.setSeq(seq);
+        bucket.setReplies(new ArrayList<>(replies));
+        return bucket;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.comment;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommentStreamHubTest {
+
+    private final List<Runnable> pending = new ArrayList<>();
+
+    @Test
+    void publish_schedulesOnlySubscribersOfSameContent() {
+        CommentStreamHub hub = new CommentStreamHub(4, Duration.ofMinutes(1), pending::add);
+        hub.subscribe(ContentType.ARTICLE, 1L);
+
+        hub.publish(ContentType.ARTICLE, 2L, "created", Map.of("id", "c1"));
+        assertThat(pending).isEmpty();
+
+        hub.publish(ContentType.ARTICLE, 1L, "created", Map.of("id", "c2"));
+        hub.publish(ContentType.ARTICLE, 1L, "deleted", Map.of("id", "c2"));
+        // пока отправка не началась, второе событие встаёт в ту же очередь
+        assertThat(pending).hasSize(1);
+
+        pending.remove(0).run();
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void publish_whenSubscriberBufferOverflows_dropsOnlyThatSubscriber() {
+        CommentStreamHub hub = new CommentStreamHub(2, Duration.ofMinutes(1), pending::add);
+        hub.subscribe(ContentType.VIDEO, 5L);
+        hub.subscribe(ContentType.VIDEO, 6L);
+
+        for (int i = 0; i < 3; i++) {
+            hub.publish(ContentType.VIDEO, 5L, "reply", Map.of("n", i));
+        }
+
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.comment;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentTombstoneServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private CommentTombstoneService commentTombstoneService;
+
+    @Test
+    void record_insertsOneTombstonePerRemovedComment() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CommentTombstone.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        Comment removed = new Comment();
+        removed.setId("65a000000000000000000001");
+        removed.setContentType(ContentType.VIDEO);
+        removed.setContentId(4L);
+
+        commentTombstoneService.record(List.of(removed));
+
+        ArgumentCaptor<List<CommentTombstone>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations).insert(inserted.capture());
+        verify(bulkOperations).execute();
+        CommentTombstone tombstone = inserted.getValue().get(0);
+        assertThat(tombstone.getId()).isEqualTo(removed.getId());
+        assertThat(tombstone.getContentId()).isEqualTo(4L);
+        assertThat(tombstone.getDeletedAt()).isNotNull();
+    }
+
+    @Test
+    void findSince_readsThreadRangeInDeletedAtOrder() {
+        Instant after = Instant.parse("2025-12-10T10:00:00Z");
+        commentTombstoneService.findSince(ContentType.VIDEO, 4L, after,
+                new ObjectId("65a000000000000000000001"), after.plusSeconds(60), 21);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(CommentTombstone.class));
+        assertThat(query.getValue().getQueryObject().get("contentId")).isEqualTo(4L);
+        assertThat(query.getValue().getSortObject()).isEqualTo(new Document("deletedAt", 1).append("_id", 1));
+        assertThat(query.getValue().getLimit()).isEqualTo(21);
+    }
+}
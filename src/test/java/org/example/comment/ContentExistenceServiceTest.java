@@ -0,0 +1,110 @@
+package org.example.comment;
+
+import org.example.article.ArticleRepository;
+import org.example.podcast.PodcastRepository;
+import org.example.video.VideoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContentExistenceServiceTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private PodcastRepository podcastRepository;
+
+    private ContentExistenceService contentExistenceService;
+
+    @BeforeEach
+    void setUp() {
+        contentExistenceService = new ContentExistenceService(articleRepository, videoRepository, podcastRepository,
+                100, Duration.ofMinutes(10), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void exists_cachesPositiveAnswer() {
+        when(articleRepository.existsById(1L)).thenReturn(true);
+
+        assertThat(contentExistenceService.exists(ContentType.ARTICLE, 1L)).isTrue();
+        assertThat(contentExistenceService.exists(ContentType.ARTICLE, 1L)).isTrue();
+
+        verify(articleRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void exists_cachesNegativeAnswerPerType() {
+        when(videoRepository.existsById(5L)).thenReturn(false);
+        when(podcastRepository.existsById(5L)).thenReturn(true);
+
+        assertThat(contentExistenceService.exists(ContentType.VIDEO, 5L)).isFalse();
+        assertThat(contentExistenceService.exists(ContentType.VIDEO, 5L)).isFalse();
+        assertThat(contentExistenceService.exists(ContentType.PODCAST, 5L)).isTrue();
+
+        verify(videoRepository, times(1)).existsById(5L);
+        verify(podcastRepository, times(1)).existsById(5L);
+    }
+
+    @Test
+    void created_replacesNegativeEntryWithoutQuery() {
+        when(articleRepository.existsById(7L)).thenReturn(false);
+        contentExistenceService.exists(ContentType.ARTICLE, 7L);
+
+        contentExistenceService.created(ContentType.ARTICLE, List.of(7L));
+
+        assertThat(contentExistenceService.exists(ContentType.ARTICLE, 7L)).isTrue();
+        verify(articleRepository, times(1)).existsById(7L);
+    }
+
+    @Test
+    void deleted_dropsPositiveEntry() {
+        when(articleRepository.existsById(3L)).thenReturn(true, false);
+        contentExistenceService.exists(ContentType.ARTICLE, 3L);
+
+        contentExistenceService.deleted(ContentType.ARTICLE, List.of(3L));
+
+        assertThat(contentExistenceService.exists(ContentType.ARTICLE, 3L)).isFalse();
+        verify(articleRepository, times(2)).existsById(3L);
+    }
+
+    @Test
+    void exists_doesNotCachePositiveLoadedBeforeConcurrentDelete() {
+        // удаление завершается, пока ответ existsById ещё не положен в кэш
+        when(articleRepository.existsById(9L)).thenAnswer(invocation -> {
+            contentExistenceService.deleted(ContentType.ARTICLE, List.of(9L));
+            return true;
+        }).thenReturn(false);
+
+        assertThat(contentExistenceService.exists(ContentType.ARTICLE, 9L)).isTrue();
+
+        assertThat(contentExistenceService.exists(ContentType.ARTICLE, 9L)).isFalse();
+        verify(articleRepository, times(2)).existsById(9L);
+    }
+
+    @Test
+    void exists_doesNotCacheNegativeLoadedBeforeConcurrentCreate() {
+        // создание завершается, пока ответ «нет» ещё не положен в кэш
+        when(videoRepository.existsById(11L)).thenAnswer(invocation -> {
+            contentExistenceService.created(ContentType.VIDEO, List.of(11L));
+            return false;
+        });
+
+        assertThat(contentExistenceService.exists(ContentType.VIDEO, 11L)).isFalse();
+
+        assertThat(contentExistenceService.exists(ContentType.VIDEO, 11L)).isTrue();
+        verify(videoRepository, times(1)).existsById(11L);
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.common;
+
+import jakarta.validation.Validation;
+import jakarta.validation.constraints.NotBlank;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BulkExecutorTest {
+
+    @SuppressWarnings("unchecked")
+    private final JpaRepository<Item, Long> repository = mock(JpaRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final BulkExecutor executor = new BulkExecutor(
+            Validation.buildDefaultValidatorFactory().getValidator(), transactionManager);
+
+    @Test
+    void create_savesValidItemsInOneCallAndReportsInvalidOnes() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(repository.saveAll(any())).thenAnswer(inv -> {
+            long id = 100;
+            for (Item item : inv.<Iterable<Item>>getArgument(0)) {
+                item.id = id++;
+            }
+            return null;
+        });
+
+        Item withId = new Item(5L, "x");
+        BulkResult result = executor.create(
+                List.of(new Item(null, "a"), new Item(null, " "), withId, new Item(null, "b")),
+                repository, Item::getId);
+
+        assertThat(result.succeeded()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.items()).extracting(BulkItemResult::status).containsExactly(
+                BulkItemResult.Status.CREATED, BulkItemResult.Status.INVALID,
+                BulkItemResult.Status.INVALID, BulkItemResult.Status.CREATED);
+        assertThat(result.affectedIds()).containsExactly(100L, 101L);
+        verify(repository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void update_loadsAllByIdOnceAndAppliesChanges() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        Item stored = new Item(1L, "old");
+        when(repository.findAllById(List.of(1L, 2L))).thenReturn(List.of(stored));
+
+        BulkResult result = executor.update(List.of(new Item(1L, "new"), new Item(2L, "missing")),
+                repository, Item::getId, (source, target) -> target.title = source.title);
+
+        assertThat(stored.title).isEqualTo("new");
+        assertThat(result.items()).extracting(BulkItemResult::status)
+                .containsExactly(BulkItemResult.Status.UPDATED, BulkItemResult.Status.NOT_FOUND);
+        verify(repository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void delete_reportsMissingIds() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        Item stored = new Item(1L, "a");
+        when(repository.findAllById(List.of(1L, 2L))).thenReturn(List.of(stored));
+
+        BulkResult result = executor.delete(List.of(1L, 2L), repository, Item::getId);
+
+        verify(repository).deleteAll(List.of(stored));
+        assertThat(result.affectedIds()).containsExactly(1L);
+        assertThat(result.items().get(1).status()).isEqualTo(BulkItemResult.Status.NOT_FOUND);
+    }
+
+    @Test
+    void tooManyItems_rejected() {
+        List<Long> ids = new ArrayList<>(Collections.nCopies(BulkExecutor.MAX_ITEMS + 1, 1L));
+
+        assertThrows(ResponseStatusException.class, () -> executor.delete(ids, repository, Item::getId));
+        verifyNoInteractions(repository);
+    }
+
+    static class Item {
+        Long id;
+
+        @NotBlank
+        String title;
+
+        Item(Long id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+
+        Long getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentCacheTest {
+
+    private final ContentCache<String> cache = new ContentCache<>("test", 10);
+
+    @Test
+    void get_loadsOnceAndCountsHitsAndMisses() {
+        cache.get(1L, id -> "one");
+        cache.get(1L, id -> "other");
+
+        ContentCache.Stats stats = cache.stats();
+        assertThat(cache.getIfPresent(1L)).isEqualTo("one");
+        assertThat(stats.name()).isEqualTo("test");
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void get_whenLoaderReturnsNull_doesNotCache() {
+        assertThat(cache.get(2L, id -> null)).isNull();
+        assertThat(cache.get(2L, id -> "two")).isEqualTo("two");
+    }
+
+    @Test
+    void invalidate_removesEntries() {
+        cache.get(1L, id -> "one");
+        cache.get(2L, id -> "two");
+
+        cache.invalidate(1L);
+        cache.invalidateAll(List.of(2L));
+
+        assertThat(cache.getIfPresent(1L)).isNull();
+        assertThat(cache.getIfPresent(2L)).isNull();
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorPageTest {
+
+    @Test
+    void of_whenFetchedFitsLimit_isLastPage() {
+        CursorPage<Integer> page = CursorPage.of(List.of(1, 2), 2, String::valueOf);
+
+        assertThat(page.items()).containsExactly(1, 2);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void of_whenExtraRowFetched_trimsAndPointsAtLastItem() {
+        CursorPage<Integer> page = CursorPage.of(List.of(1, 2, 3), 2, String::valueOf);
+
+        assertThat(page.items()).containsExactly(1, 2);
+        assertThat(page.nextCursor()).isEqualTo("2");
+    }
+
+    @Test
+    void limit_defaultsAndCaps() {
+        assertThat(CursorPage.limit(null)).isEqualTo(CursorPage.DEFAULT_LIMIT);
+        assertThat(CursorPage.limit(5)).isEqualTo(5);
+        assertThat(CursorPage.limit(100_000)).isEqualTo(CursorPage.MAX_LIMIT);
+        assertThrows(ResponseStatusException.class, () -> CursorPage.limit(0));
+    }
+}
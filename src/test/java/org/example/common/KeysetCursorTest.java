@@ -0,0 +1,38 @@
+package org.example.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeAndDecode_roundTrip() {
+        String cursor = KeysetCursor.encode("2025-12-10", 42L);
+
+        assertThat(KeysetCursor.decode(cursor, 2)).containsExactly("2025-12-10", "42");
+    }
+
+    @Test
+    void decodeId_returnsId() {
+        assertThat(KeysetCursor.decodeId(KeysetCursor.encode(7L))).isEqualTo(7L);
+    }
+
+    @Test
+    void decode_garbage_throws400() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> KeysetCursor.decodeId("not a cursor!"));
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void decode_wrongNumberOfParts_throws400() {
+        String cursor = KeysetCursor.encode("a", "b");
+
+        assertThrows(ResponseStatusException.class, () -> KeysetCursor.decode(cursor, 1));
+    }
+}
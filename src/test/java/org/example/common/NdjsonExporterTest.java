@@ -0,0 +1,46 @@
+package org.example.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NdjsonExporterTest {
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final NdjsonExporter exporter =
+            new NdjsonExporter(entityManager, transactionManager, new ObjectMapper());
+
+    @Test
+    void export_writesOneLinePerRowAndDetachesEachRow() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        Map<String, Object> first = Map.of("id", 1);
+        Map<String, Object> second = Map.of("id", 2);
+
+        ResponseEntity<StreamingResponseBody> response = exporter.export(() -> Stream.of(first, second));
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(NdjsonExporter.NDJSON);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        verify(transactionManager).commit(any());
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.common;
+
+import jakarta.persistence.EntityManager;
+import org.example.article.Article;
+import org.example.article.ArticleRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(PatchExecutor.class)
+class PatchExecutorTest {
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PatchExecutor patchExecutor;
+
+    @Test
+    void apply_updatesOnlyPassedFieldsInOneStatement() {
+        Long id = saveArticle();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        patchExecutor.apply(Article.class, id, Map.of("title", "New title"), "Article not found");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        entityManager.clear();
+        Article patched = articleRepository.findById(id).orElseThrow();
+        assertThat(patched.getTitle()).isEqualTo("New title");
+        assertThat(patched.getText()).isEqualTo("Long body");
+        assertThat(patched.getVersion()).isEqualTo(1L);
+        assertThat(patched.getUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    void apply_unknownId_throwsNotFound() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> patchExecutor.apply(Article.class, 999L, Map.of("title", "x"), "Article not found"));
+
+        assertThat(ex.getStatusCode().value()).isEqualTo(404);
+        assertThat(ex.getReason()).isEqualTo("Article not found");
+    }
+
+    @Test
+    void apply_noChanges_throwsBadRequest() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> patchExecutor.apply(Article.class, 1L, Map.of(), "Article not found"));
+
+        assertThat(ex.getStatusCode().value()).isEqualTo(400);
+    }
+
+    private Long saveArticle() {
+        Article article = new Article();
+        article.setTitle("Old title");
+        article.setText("Long body");
+        article.setAuthor("Alex");
+        article.setPublishedAt(LocalDate.of(2025, 12, 10));
+        Long id = articleRepository.save(article).getId();
+        entityManager.flush();
+        entityManager.clear();
+        return id;
+    }
+}
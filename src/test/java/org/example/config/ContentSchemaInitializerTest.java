@@ -0,0 +1,32 @@
+package org.example.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.example.config.ContentSchemaInitializer.ContentSchemaMigration.parsePublishedAt;
+
+class ContentSchemaInitializerTest {
+
+    @Test
+    void parsePublishedAt_convertsKnownFormats() {
+        LocalDate expected = LocalDate.of(2025, 12, 10);
+
+        assertThat(parsePublishedAt("2025-12-10")).isEqualTo(expected);
+        assertThat(parsePublishedAt(" 2025-12-10 ")).isEqualTo(expected);
+        assertThat(parsePublishedAt("2025-12-10T08:30:00Z")).isEqualTo(expected);
+        assertThat(parsePublishedAt("2025-12-10 08:30")).isEqualTo(expected);
+        assertThat(parsePublishedAt("10.12.2025")).isEqualTo(expected);
+        assertThat(parsePublishedAt("2025/12/10")).isEqualTo(expected);
+    }
+
+    @Test
+    void parsePublishedAt_rejectsUnknownFormatsAndImpossibleDates() {
+        assertThat(parsePublishedAt("вчера")).isNull();
+        assertThat(parsePublishedAt("12/10/2025")).isNull();
+        assertThat(parsePublishedAt("2025-02-30")).isNull();
+        assertThat(parsePublishedAt("")).isNull();
+        assertThat(parsePublishedAt(null)).isNull();
+    }
+}
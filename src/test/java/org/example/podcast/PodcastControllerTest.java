@@ -1,12 +1,23 @@
 package org.example.podcast;
 
+import org.example.comment.CommentCascadeCleaner;
+import org.example.comment.ContentExistenceService;
+import org.example.common.ContentCache;
+import org.example.common.CursorPage;
+import org.example.podcast.dto.AppendEpisodeRequest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +31,18 @@ class PodcastControllerTest {
     @Mock
     private PodcastRepository podcastRepository;
 
+    @Mock
+    private ContentExistenceService contentExistenceService;
+
+    @Mock
+    private CommentCascadeCleaner commentCascadeCleaner;
+
+    @Spy
+    private ContentCache<Podcast> podcastCache = new ContentCache<>("podcasts", 100);
+
+    @Mock
+    private PodcastEpisodeService podcastEpisodeService;
+
     @InjectMocks
     private PodcastController podcastController;
 
@@ -31,33 +54,78 @@ class PodcastControllerTest {
         p.setAudioUrl("https://example.com/podcast");
         p.setEpisodes(List.of("ep1", "ep2"));
 
-        when(podcastRepository.findAll()).thenReturn(List.of(p));
+        when(podcastRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1)))
+                .thenReturn(List.of(p));
 
-        List<Podcast> result = podcastController.getAll();
+        CursorPage<Podcast> result = podcastController.getAll(null, null);
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getTitle()).isEqualTo("Tech talks");
-        verify(podcastRepository).findAll();
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.items().get(0).getTitle()).isEqualTo("Tech talks");
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void getSummaries_usesProjectionQuery() {
+        when(podcastRepository.findSummariesByIdGreaterThan(0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1)))
+                .thenReturn(List.of(new PodcastSummary(1L, "Tech talks", "https://example.com/podcast")));
+
+        CursorPage<PodcastSummary> result = podcastController.getSummaries(null, null);
+
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.items().get(0).id()).isEqualTo(1L);
+        verify(podcastRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
     }
 
     @Test
     void getById_returnsPodcast() {
         Podcast p = new Podcast();
         p.setId(2L);
-        when(podcastRepository.findById(2L)).thenReturn(Optional.of(p));
+        when(podcastRepository.findWithEpisodesById(2L)).thenReturn(Optional.of(p));
 
-        Podcast result = podcastController.getById(2L);
+        Podcast result = podcastController.getById(2L, getRequest());
 
         assertThat(result).isSameAs(p);
-        verify(podcastRepository).findById(2L);
+        verify(podcastRepository).findWithEpisodesById(2L);
     }
 
     @Test
     void getById_whenNotFound_throws404() {
-        when(podcastRepository.findById(99L)).thenReturn(Optional.empty());
+        when(podcastRepository.findWithEpisodesById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ResponseStatusException.class,
-                () -> podcastController.getById(99L));
+                () -> podcastController.getById(99L, getRequest()));
+    }
+
+    @Test
+    void getEpisodes_delegatesToEpisodeService() {
+        CursorPage<EpisodeEntry> page = new CursorPage<>(List.of(new EpisodeEntry(0, "ep1")), null);
+        when(podcastEpisodeService.page(2L, null, 10)).thenReturn(page);
+
+        assertThat(podcastController.getEpisodes(2L, null, 10)).isSameAs(page);
+    }
+
+    @Test
+    void appendEpisode_delegatesAndInvalidatesCache() {
+        podcastCache.get(2L, key -> new Podcast());
+        AppendEpisodeRequest request = new AppendEpisodeRequest();
+        request.setTitle("ep3");
+        when(podcastEpisodeService.append(2L, "ep3")).thenReturn(new EpisodeEntry(2, "ep3"));
+
+        EpisodeEntry result = podcastController.appendEpisode(2L, request);
+
+        assertThat(result.position()).isEqualTo(2);
+        assertThat(podcastCache.contains(2L)).isFalse();
+        verifyNoInteractions(podcastRepository);
+    }
+
+    @Test
+    void removeEpisode_delegatesAndInvalidatesCache() {
+        podcastCache.get(2L, key -> new Podcast());
+
+        podcastController.removeEpisode(2L, 1);
+
+        verify(podcastEpisodeService).remove(2L, 1);
+        assertThat(podcastCache.contains(2L)).isFalse();
     }
 
     @Test
@@ -87,7 +155,7 @@ class PodcastControllerTest {
         existing.setId(3L);
         existing.setTitle("Old");
         existing.setAudioUrl("old");
-        existing.setEpisodes(List.of("old"));
+        existing.setEpisodes(new ArrayList<>(List.of("old")));
 
         Podcast req = new Podcast();
         req.setTitle("New");
@@ -124,4 +192,8 @@ class PodcastControllerTest {
         assertThrows(ResponseStatusException.class,
                 () -> podcastController.delete(99L));
     }
+
+    private static ServletWebRequest getRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/podcasts/1"), new MockHttpServletResponse());
+    }
 }
@@ -0,0 +1,134 @@
+package org.example.podcast;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(PodcastEpisodeService.class)
+class PodcastEpisodeServiceTest {
+
+    private static final int EPISODES = 200;
+
+    @Autowired
+    private PodcastRepository podcastRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PodcastEpisodeService podcastEpisodeService;
+
+    private Statistics statistics;
+    private Long podcastId;
+
+    @BeforeEach
+    void setUp() {
+        Podcast podcast = new Podcast();
+        podcast.setTitle("Tech talks");
+        podcast.setAudioUrl("https://example.com/podcast");
+        podcast.setEpisodes(new ArrayList<>(IntStream.range(0, EPISODES).mapToObj(i -> "ep" + i).toList()));
+        podcastId = podcastRepository.save(podcast).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void append_issuesConstantNumberOfStatements() {
+        EpisodeEntry entry = podcastEpisodeService.append(podcastId, "new");
+
+        // version bump + max(position) + insert, независимо от длины списка
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(entry.position()).isEqualTo(EPISODES);
+        assertThat(episodes()).hasSize(EPISODES + 1).endsWith("new");
+    }
+
+    @Test
+    void remove_issuesConstantNumberOfStatementsAndCompactsPositions() {
+        podcastEpisodeService.remove(podcastId, 1);
+
+        // version bump + delete + два сдвига хвоста
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        List<String> episodes = episodes();
+        assertThat(episodes).hasSize(EPISODES - 1).startsWith("ep0", "ep2", "ep3");
+        assertThat(episodes).doesNotContainNull();
+    }
+
+    @Test
+    void reorder_movesEpisodeAndShiftsRange() {
+        podcastEpisodeService.reorder(podcastId, 3, 0);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(episodes()).startsWith("ep3", "ep0", "ep1", "ep2", "ep4");
+    }
+
+    @Test
+    void reorder_forward() {
+        podcastEpisodeService.reorder(podcastId, 0, 2);
+
+        assertThat(episodes()).startsWith("ep1", "ep2", "ep0", "ep3");
+    }
+
+    @Test
+    void reorder_outOfRange_throwsBadRequest() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> podcastEpisodeService.reorder(podcastId, 0, EPISODES));
+
+        assertThat(ex.getStatusCode().value()).isEqualTo(400);
+    }
+
+    @Test
+    void remove_unknownPosition_throwsNotFound() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> podcastEpisodeService.remove(podcastId, EPISODES));
+
+        assertThat(ex.getStatusCode().value()).isEqualTo(404);
+    }
+
+    @Test
+    void append_bumpsVersion() {
+        String tagBefore = podcastRepository.findVersionById(podcastId).orElseThrow().tag();
+
+        podcastEpisodeService.append(podcastId, "new");
+
+        assertThat(podcastRepository.findVersionById(podcastId).orElseThrow().tag()).isNotEqualTo(tagBefore);
+    }
+
+    @Test
+    void unknownPodcast_throwsNotFound() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> podcastEpisodeService.append(999L, "new"));
+
+        assertThat(ex.getStatusCode().value()).isEqualTo(404);
+    }
+
+    @Test
+    void page_usesPositionCursor() {
+        var first = podcastEpisodeService.page(podcastId, null, 2);
+        var second = podcastEpisodeService.page(podcastId, first.nextCursor(), 2);
+
+        assertThat(first.items()).extracting(EpisodeEntry::title).containsExactly("ep0", "ep1");
+        assertThat(second.items()).extracting(EpisodeEntry::position).containsExactly(2, 3);
+    }
+
+    private List<String> episodes() {
+        entityManager.clear();
+        return podcastRepository.findWithEpisodesById(podcastId).orElseThrow().getEpisodes();
+    }
+}
@@ -1,10 +1,20 @@
 package org.example.video;
 
+import org.example.comment.CommentCascadeCleaner;
+import org.example.comment.ContentExistenceService;
+import org.example.comment.ContentType;
+import org.example.common.ContentCache;
+import org.example.common.CursorPage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -20,6 +30,15 @@ class VideoControllerTest {
     @Mock
     private VideoRepository videoRepository;
 
+    @Mock
+    private ContentExistenceService contentExistenceService;
+
+    @Mock
+    private CommentCascadeCleaner commentCascadeCleaner;
+
+    @Spy
+    private ContentCache<Video> videoCache = new ContentCache<>("videos", 100);
+
     @InjectMocks
     private VideoController videoController;
 
@@ -31,13 +50,26 @@ class VideoControllerTest {
         v1.setUrl("https://example.com/1");
         v1.setDuration(100);
 
-        when(videoRepository.findAll()).thenReturn(List.of(v1));
+        when(videoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1)))
+                .thenReturn(List.of(v1));
+
+        CursorPage<Video> result = videoController.getAll(null, null);
 
-        List<Video> result = videoController.getAll();
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.items().get(0).getTitle()).isEqualTo("Video 1");
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void getSummaries_usesProjectionQuery() {
+        when(videoRepository.findSummariesByIdGreaterThan(0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1)))
+                .thenReturn(List.of(new VideoSummary(1L, "Video 1", "https://example.com/v1", 100)));
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getTitle()).isEqualTo("Video 1");
-        verify(videoRepository).findAll();
+        CursorPage<VideoSummary> result = videoController.getSummaries(null, null);
+
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.items().get(0).id()).isEqualTo(1L);
+        verify(videoRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
     }
 
     @Test
@@ -47,7 +79,7 @@ class VideoControllerTest {
 
         when(videoRepository.findById(5L)).thenReturn(Optional.of(v));
 
-        Video result = videoController.getById(5L);
+        Video result = videoController.getById(5L, getRequest());
 
         assertThat(result).isSameAs(v);
         verify(videoRepository).findById(5L);
@@ -58,7 +90,7 @@ class VideoControllerTest {
         when(videoRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ResponseStatusException.class,
-                () -> videoController.getById(99L));
+                () -> videoController.getById(99L, getRequest()));
     }
 
     @Test
@@ -115,6 +147,8 @@ class VideoControllerTest {
 
         verify(videoRepository).existsById(1L);
         verify(videoRepository).deleteById(1L);
+        verify(contentExistenceService).deleted(ContentType.VIDEO, List.of(1L));
+        verify(commentCascadeCleaner).contentDeleted(ContentType.VIDEO, List.of(1L));
     }
 
     @Test
@@ -124,4 +158,8 @@ class VideoControllerTest {
         assertThrows(ResponseStatusException.class,
                 () -> videoController.delete(99L));
     }
+
+    private static ServletWebRequest getRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/videos/1"), new MockHttpServletResponse());
+    }
 }